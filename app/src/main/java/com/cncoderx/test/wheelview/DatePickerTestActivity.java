@@ -4,7 +4,9 @@ import android.app.Activity;
 import android.os.Bundle;
 import android.widget.TextView;
 
+import com.cncoderx.wheelview.NumericWheelAdapter;
 import com.cncoderx.wheelview.OnWheelChangedListener;
+import com.cncoderx.wheelview.WheelGroup;
 import com.cncoderx.wheelview.WheelView;
 
 import java.util.Calendar;
@@ -15,6 +17,7 @@ import java.util.Calendar;
 public class DatePickerTestActivity extends Activity {
     TextView mTextView;
     WheelView wvYear, wvMonth, wvDay;
+    NumericWheelAdapter dayAdapter;
 
     int mYear, mMonth, mDay;
 
@@ -27,37 +30,45 @@ public class DatePickerTestActivity extends Activity {
         wvMonth = (WheelView) findViewById(R.id.wv_month);
         wvDay = (WheelView) findViewById(R.id.wv_day);
 
-        wvYear.setEntries(new String[]{
-                "1980年", "1981年", "1982年", "1983年", "1984年", "1985年", "1986年", "1987年", "1988年", "1989年",
-                "1990年", "1991年", "1992年", "1993年", "1994年", "1995年", "1996年", "1997年", "1998年", "1999年",
-                "2000年", "2001年", "2002年", "2003年", "2004年", "2005年", "2006年", "2007年", "2008年", "2009年",
-                "2010年", "2011年", "2012年", "2013年", "2014年", "2015年", "2016年", "2017年", "2018年", "2019年", "2020年"});
+        NumericWheelAdapter yearAdapter = new NumericWheelAdapter(1980, 2020);
+        yearAdapter.setFormat(null, 4, "年");
+        wvYear.setAdapter(yearAdapter);
 
-        wvMonth.setEntries(new String[] {"1月", "2月", "3月", "4月", "5月", "6月", "7月", "8月", "9月", "10月", "11月", "12月"});
+        NumericWheelAdapter monthAdapter = new NumericWheelAdapter(1, 12);
+        monthAdapter.setFormat(null, 0, "月");
+        wvMonth.setAdapter(monthAdapter);
+
+        dayAdapter = new NumericWheelAdapter(1, 31);
+        dayAdapter.setFormat(null, 0, "日");
+        wvDay.setAdapter(dayAdapter);
 
         wvYear.setOnWheelChangedListener(new OnWheelChangedListener() {
             @Override
             public void onChanged(WheelView wheel, int oldIndex, int newIndex) {
-                String text = (String) wvYear.getItem(newIndex);
-                mYear = Integer.parseInt(text.substring(0, text.length() - 1));
-                updateDayEntries();
+                mYear = wvYear.getCurrentValue();
                 updateTextView();
             }
         });
         wvMonth.setOnWheelChangedListener(new OnWheelChangedListener() {
             @Override
             public void onChanged(WheelView wheel, int oldIndex, int newIndex) {
-                String text = (String) wvMonth.getItem(newIndex);
-                mMonth = Integer.parseInt(text.substring(0, text.length() - 1));
-                updateDayEntries();
+                mMonth = wvMonth.getCurrentValue();
                 updateTextView();
             }
         });
+        // 年份或月份变化后更新日期，滑行过程中每帧最多更新一次
+        WheelGroup group = new WheelGroup();
+        group.addDependency(wvDay, new WheelGroup.Updater() {
+            @Override
+            public void onUpdate(WheelView target) {
+                updateDayEntries();
+                updateTextView();
+            }
+        }, wvYear, wvMonth);
         wvDay.setOnWheelChangedListener(new OnWheelChangedListener() {
             @Override
             public void onChanged(WheelView wheel, int oldIndex, int newIndex) {
-                String text = (String) wvDay.getItem(newIndex);
-                mDay = Integer.parseInt(text.substring(0, text.length() - 1));
+                mDay = wvDay.getCurrentValue();
                 updateTextView();
             }
         });
@@ -65,7 +76,6 @@ public class DatePickerTestActivity extends Activity {
         mYear = 1980;
         mMonth = 1;
         mDay = 1;
-        updateDayEntries();
         updateTextView();
     }
 
@@ -75,34 +85,9 @@ public class DatePickerTestActivity extends Activity {
         calendar.set(Calendar.MONTH, mMonth - 1);
 
         int days = calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-        switch (days) {
-            case 28:
-                wvDay.setEntries(new String[] {
-                        "1日", "2日", "3日", "4日", "5日", "6日", "7日", "8日", "9日", "10日",
-                        "11日", "12日", "13日", "14日", "15日", "16日", "17日", "18日", "19日", "20日",
-                        "21日", "22日", "23日", "24日", "25日", "26日", "27日", "28日"});
-                break;
-            case 29:
-                wvDay.setEntries(new String[] {
-                        "1日", "2日", "3日", "4日", "5日", "6日", "7日", "8日", "9日", "10日",
-                        "11日", "12日", "13日", "14日", "15日", "16日", "17日", "18日", "19日", "20日",
-                        "21日", "22日", "23日", "24日", "25日", "26日", "27日", "28日", "29日"});
-                break;
-            case 30:
-                wvDay.setEntries(new String[] {
-                        "1日", "2日", "3日", "4日", "5日", "6日", "7日", "8日", "9日", "10日",
-                        "11日", "12日", "13日", "14日", "15日", "16日", "17日", "18日", "19日", "20日",
-                        "21日", "22日", "23日", "24日", "25日", "26日", "27日", "28日", "29日", "30日"});
-                break;
-            case 31:
-            default:
-                wvDay.setEntries(new String[] {
-                        "1日", "2日", "3日", "4日", "5日", "6日", "7日", "8日", "9日", "10日",
-                        "11日", "12日", "13日", "14日", "15日", "16日", "17日", "18日", "19日", "20日",
-                        "21日", "22日", "23日", "24日", "25日", "26日", "27日", "28日", "29日", "30日",
-                        "31日"});
-                break;
-        }
+        // 只修改天数的范围，日期滚轮保持当前选中的日期
+        dayAdapter.setRange(1, days);
+        mDay = wvDay.getCurrentValue();
     }
 
     private void updateTextView() {
@@ -0,0 +1,110 @@
+package com.cncoderx.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每一帧计算可见选项并获取选项文字的开销，对应WheelView.drawItems和getCharSequence
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class WheelLayoutBenchmark {
+    private static final int ITEM_HEIGHT = 120;
+    private static final int ITEM_COUNT = 9;
+
+    @Param({"false", "true"})
+    public boolean cyclic;
+
+    @Param({"list", "numeric"})
+    public String adapter;
+
+    private WheelAdapter mAdapter;
+    private WheelLayoutEngine mLayoutEngine;
+    private int mScrollOffset;
+    private int mFrame;
+
+    @Setup
+    public void setUp() {
+        if ("numeric".equals(adapter)) {
+            mAdapter = new NumericWheelAdapter(0, 49999);
+        } else {
+            List<CharSequence> entries = new ArrayList<>(50000);
+            for (int i = 0; i < 50000; i++) {
+                entries.add(String.valueOf(i));
+            }
+            mAdapter = new ListWheelAdapter(entries);
+        }
+        mLayoutEngine = new WheelLayoutEngine();
+    }
+
+    /**
+     * 模拟滑行中每一帧的滚动距离都不同，滚动范围始终在选项之内
+     */
+    private void nextFrame() {
+        mFrame = (mFrame + 7) % (ITEM_HEIGHT * 1000);
+        mScrollOffset = 24500 * ITEM_HEIGHT + mFrame;
+    }
+
+    /**
+     * 一帧中计算可见范围并获取每个可见选项的文字
+     */
+    @Benchmark
+    public void visibleItems(Blackhole bh) {
+        nextFrame();
+        final int itemSize = mAdapter.getCount();
+        final int index = WheelMath.itemIndex(mScrollOffset, ITEM_HEIGHT);
+        final int offset = WheelMath.itemOffset(mScrollOffset, ITEM_HEIGHT);
+        final int minIdx = WheelMath.minVisibleIndex(index, offset, ITEM_COUNT);
+        final int maxIdx = WheelMath.maxVisibleIndex(index, offset, ITEM_COUNT);
+        for (int i = minIdx; i < maxIdx; i++) {
+            int position = WheelMath.itemPosition(i, itemSize, cyclic);
+            if (position >= 0) {
+                bh.consume(mAdapter.getItem(position));
+            }
+        }
+    }
+
+    /**
+     * 使用WheelLayoutEngine计算一帧中所有可见选项的布局并获取文字
+     */
+    @Benchmark
+    public void layoutEngine(Blackhole bh) {
+        nextFrame();
+        final WheelLayoutEngine engine = mLayoutEngine;
+        engine.configure(ITEM_HEIGHT, ITEM_COUNT, mAdapter.getCount(), cyclic);
+        engine.layout(mScrollOffset);
+        for (int i = 0, n = engine.getVisibleCount(); i < n; i++) {
+            bh.consume(mAdapter.getItem(engine.getItem(i).getPosition()));
+        }
+    }
+
+    /**
+     * 只计算可见范围
+     */
+    @Benchmark
+    public void visibleRange(Blackhole bh) {
+        nextFrame();
+        final int index = WheelMath.itemIndex(mScrollOffset, ITEM_HEIGHT);
+        final int offset = WheelMath.itemOffset(mScrollOffset, ITEM_HEIGHT);
+        bh.consume(WheelMath.minVisibleIndex(index, offset, ITEM_COUNT));
+        bh.consume(WheelMath.maxVisibleIndex(index, offset, ITEM_COUNT));
+    }
+}
@@ -0,0 +1,68 @@
+package com.cncoderx.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wheel3DView中一帧所有可见选项的投影计算，比较解析计算与查表的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class WheelProjectionBenchmark {
+    private static final int RADIUS = 400;
+    private static final int ITEM_HEIGHT = 120;
+    private static final int ITEM_COUNT = 11;
+
+    private WheelProjection mProjection;
+    private int mOffset;
+
+    @Setup
+    public void setUp() {
+        mProjection = new WheelProjection();
+        mProjection.setRadius(RADIUS);
+    }
+
+    @Benchmark
+    public void analytic(Blackhole bh) {
+        mOffset = (mOffset + 7) % ITEM_HEIGHT;
+        for (int i = -ITEM_COUNT / 2; i <= ITEM_COUNT / 2; i++) {
+            final int range = i * ITEM_HEIGHT - mOffset;
+            if (Math.abs(range) > RADIUS * Math.PI / 2) continue;
+            final double angle = (double) range / RADIUS;
+            bh.consume((float) Math.toDegrees(-angle));
+            bh.consume((float) (Math.sin(angle) * RADIUS));
+            bh.consume((float) ((1 - Math.cos(angle)) * RADIUS));
+            bh.consume((int) (Math.cos(angle) * 255));
+        }
+    }
+
+    @Benchmark
+    public void table(Blackhole bh) {
+        mOffset = (mOffset + 7) % ITEM_HEIGHT;
+        final WheelProjection projection = mProjection;
+        projection.setRadius(RADIUS);
+        for (int i = -ITEM_COUNT / 2; i <= ITEM_COUNT / 2; i++) {
+            final int range = i * ITEM_HEIGHT - mOffset;
+            if (!projection.isVisible(range)) continue;
+            bh.consume(projection.getRotate(range));
+            bh.consume(projection.getTranslateY(range));
+            bh.consume(projection.getTranslateZ(range));
+            bh.consume(projection.getAlpha(range));
+        }
+    }
+}
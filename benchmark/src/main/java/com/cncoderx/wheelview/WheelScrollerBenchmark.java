@@ -0,0 +1,65 @@
+package com.cncoderx.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WheelScroller中根据滚动距离计算选项位置的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class WheelScrollerBenchmark {
+    private static final int ITEM_HEIGHT = 120;
+    private static final int ITEM_SIZE = 50000;
+
+    // 一次滑行中连续的滚动距离
+    private int[] mOffsets;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        mOffsets = new int[1024];
+        int offset = 0;
+        for (int i = 0; i < mOffsets.length; i++) {
+            offset += random.nextInt(ITEM_HEIGHT * 2) - ITEM_HEIGHT / 2;
+            mOffsets[i] = offset;
+        }
+    }
+
+    @Benchmark
+    public void getCurrentIndex(Blackhole bh) {
+        for (int offset : mOffsets) {
+            bh.consume(WheelMath.currentIndex(offset, ITEM_HEIGHT, ITEM_SIZE));
+        }
+    }
+
+    @Benchmark
+    public void getItemIndex(Blackhole bh) {
+        for (int offset : mOffsets) {
+            bh.consume(WheelMath.itemIndex(offset, ITEM_HEIGHT));
+        }
+    }
+
+    @Benchmark
+    public void getItemOffset(Blackhole bh) {
+        for (int offset : mOffsets) {
+            bh.consume(WheelMath.itemOffset(offset, ITEM_HEIGHT));
+        }
+    }
+}
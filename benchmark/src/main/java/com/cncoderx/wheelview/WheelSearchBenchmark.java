@@ -0,0 +1,61 @@
+package com.cncoderx.wheelview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10万个选项的前缀查找，以及插入少量选项后的增量更新
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class WheelSearchBenchmark {
+    private static final int ENTRY_COUNT = 100000;
+    private static final String[] PREFIXES = {"a", "kx", "mqe", "zzzz", "Ünb", "hello"};
+
+    private CharSequence[] mEntries;
+    private WheelKeyIndex mIndex;
+    private int mPrefix;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        mEntries = new CharSequence[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            char[] chars = new char[4 + random.nextInt(8)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            mEntries[i] = new String(chars);
+        }
+        mIndex = new WheelKeyIndex();
+        mIndex.build(mEntries);
+    }
+
+    @Benchmark
+    public int findIndex() {
+        mPrefix = (mPrefix + 1) % PREFIXES.length;
+        return mIndex.find(PREFIXES[mPrefix]);
+    }
+
+    @Benchmark
+    public int insertAndRemove() {
+        mIndex.insert(ENTRY_COUNT / 2, new CharSequence[]{"inserted", "entries"});
+        mIndex.remove(ENTRY_COUNT / 2, 2);
+        return mIndex.size();
+    }
+}
@@ -0,0 +1,94 @@
+package com.cncoderx.wheelview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可以通知数据变化的数据源。数据变化后调用对应的notify方法，滚轮会保持当前选中的选项，
+ * 并且只在可见的选项发生变化时重绘
+ *
+ * @author cncoderx
+ */
+public abstract class BaseWheelAdapter implements WheelAdapter {
+    private final List<WheelDataObserver> mObservers = new ArrayList<>();
+
+    void registerDataObserver(WheelDataObserver observer) {
+        if (!mObservers.contains(observer)) {
+            mObservers.add(observer);
+        }
+    }
+
+    void unregisterDataObserver(WheelDataObserver observer) {
+        mObservers.remove(observer);
+    }
+
+    /**
+     * 绘制时获取选项的文字，返回的对象只在本次绘制中有效，可以重复使用同一个对象以避免绘制时创建对象
+     */
+    CharSequence getDrawingItem(int index) {
+        return getItem(index);
+    }
+
+    /**
+     * 建立索引等不用于显示的场景读取选项，不应该因此加载数据或者改变缓存的顺序
+     *
+     * @return 选项的文字，选项还没有准备好时返回null
+     */
+    CharSequence peekItem(int index) {
+        return getItem(index);
+    }
+
+    /**
+     * @return 所有选项的不可变副本，可以在其他线程中读取；无法快速复制时返回null，由调用者在主线程中分批读取
+     */
+    List<? extends CharSequence> snapshotItems() {
+        return null;
+    }
+
+    /**
+     * 使用该数据源的滚轮当前选中的选项变化时调用，可以在这里预先准备附近的选项
+     *
+     * @param index 当前选中的选项
+     */
+    protected void onCurrentIndexChanged(int index) {
+    }
+
+    /**
+     * 通知所有选项都可能发生了变化
+     */
+    public void notifyDataSetChanged() {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onChanged();
+        }
+    }
+
+    /**
+     * 通知从start开始的count个选项的内容发生了变化
+     */
+    public void notifyItemRangeChanged(int start, int count) {
+        if (count <= 0) return;
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onItemRangeChanged(start, count);
+        }
+    }
+
+    /**
+     * 通知在start位置插入了count个选项
+     */
+    public void notifyItemRangeInserted(int start, int count) {
+        if (count <= 0) return;
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onItemRangeInserted(start, count);
+        }
+    }
+
+    /**
+     * 通知删除了从start开始的count个选项
+     */
+    public void notifyItemRangeRemoved(int start, int count) {
+        if (count <= 0) return;
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            mObservers.get(i).onItemRangeRemoved(start, count);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.cncoderx.wheelview;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在下一帧执行回调。Android 4.1及以上使用Choreographer与垂直同步信号对齐，
+ * 更早的版本使用Handler模拟帧间隔
+ *
+ * @author cncoderx
+ */
+class FrameScheduler {
+    // 不支持Choreographer时的帧间隔（毫秒）
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
+    private static FrameScheduler sInstance;
+
+    private Handler mHandler;
+
+    /**
+     * @return 主线程的帧调度器
+     */
+    static FrameScheduler getInstance() {
+        if (sInstance == null) {
+            sInstance = new FrameScheduler();
+        }
+        return sInstance;
+    }
+
+    /**
+     * @return 当前的时间（纳秒），与帧回调收到的帧时间基准相同，用于记录动画开始的时间
+     */
+    long nanoTime() {
+        return uptimeNanos();
+    }
+
+    /**
+     * Choreographer的帧时间与{@link SystemClock#uptimeMillis()}使用同一个单调时钟
+     */
+    static long uptimeNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(SystemClock.uptimeMillis());
+    }
+
+    /**
+     * 在下一帧执行回调，回调只会执行一次
+     */
+    void postFrameCallback(FrameCallback callback) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            ChoreographerImpl.postFrameCallback(callback);
+        } else {
+            getHandler().postDelayed(callback, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    void removeFrameCallback(FrameCallback callback) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            ChoreographerImpl.removeFrameCallback(callback);
+        } else {
+            getHandler().removeCallbacks(callback);
+        }
+    }
+
+    private Handler getHandler() {
+        if (mHandler == null) {
+            mHandler = new Handler(Looper.getMainLooper());
+        }
+        return mHandler;
+    }
+
+    /**
+     * 帧回调，同一个回调对象可以重复提交，不会产生额外的对象
+     */
+    abstract static class FrameCallback implements Runnable {
+        // Choreographer.FrameCallback的实例，只在Android 4.1及以上创建
+        Object mChoreographerCallback;
+
+        /**
+         * @param frameTimeNanos 当前帧开始的时间（纳秒），与SystemClock.uptimeMillis()的时间基准相同
+         */
+        abstract void doFrame(long frameTimeNanos);
+
+        @Override
+        public final void run() {
+            doFrame(uptimeNanos());
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class ChoreographerImpl {
+        static void postFrameCallback(FrameCallback callback) {
+            Choreographer.getInstance().postFrameCallback(obtain(callback));
+        }
+
+        static void removeFrameCallback(FrameCallback callback) {
+            if (callback.mChoreographerCallback != null) {
+                Choreographer.getInstance().removeFrameCallback(
+                        (Choreographer.FrameCallback) callback.mChoreographerCallback);
+            }
+        }
+
+        private static Choreographer.FrameCallback obtain(final FrameCallback callback) {
+            if (callback.mChoreographerCallback == null) {
+                callback.mChoreographerCallback = new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        callback.doFrame(frameTimeNanos);
+                    }
+                };
+            }
+            return (Choreographer.FrameCallback) callback.mChoreographerCallback;
+        }
+    }
+}
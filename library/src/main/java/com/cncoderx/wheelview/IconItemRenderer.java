@@ -0,0 +1,127 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.text.TextPaint;
+
+/**
+ * 在文字左侧绘制图标的选项渲染器，例如国旗和国家名称、头像和联系人。
+ * 图标通过{@link WheelIconCache}在后台线程中解码，尚未解码的图标绘制为占位色块，解码完成后滚轮重新绘制
+ *
+ * @author cncoderx
+ */
+public class IconItemRenderer implements ItemRenderer {
+    /**
+     * 选项图标的数据来源
+     */
+    public interface IconSource extends WheelIconCache.IconLoader {
+        /**
+         * 获取选项图标的标识，相同标识的图标在共享同一个缓存的滚轮之间只解码一次。
+         * 绘制时调用，不要在这里创建新的字符串
+         *
+         * @param position 选项在数据源中的位置
+         * @return 图标的标识，选项没有图标时返回null
+         */
+        String getIconKey(int position);
+    }
+
+    private static final int DEFAULT_PLACEHOLDER_COLOR = 0x33808080;
+
+    private final IconSource mSource;
+    private final WheelIconCache mCache;
+    private final Paint mIconPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint mPlaceholderPaint = new Paint();
+    private final Rect mPlaceholderRect = new Rect();
+    private int mPlaceholderColor = DEFAULT_PLACEHOLDER_COLOR;
+    private int mIconSize;
+
+    /**
+     * 使用所有滚轮共享的{@link WheelIconCache#getDefault()}
+     *
+     * @param source 图标的数据来源
+     */
+    public IconItemRenderer(IconSource source) {
+        this(source, WheelIconCache.getDefault());
+    }
+
+    /**
+     * @param source 图标的数据来源
+     * @param cache 图标的缓存
+     */
+    public IconItemRenderer(IconSource source, WheelIconCache cache) {
+        mSource = source;
+        mCache = cache;
+    }
+
+    public int getIconSize() {
+        return mIconSize;
+    }
+
+    /**
+     * @param iconSize 图标的尺寸（像素），为0时为选项高度的3/4
+     */
+    public void setIconSize(int iconSize) {
+        mIconSize = Math.max(0, iconSize);
+    }
+
+    public int getPlaceholderColor() {
+        return mPlaceholderColor;
+    }
+
+    /**
+     * @param color 图标尚未解码时占位色块的颜色
+     */
+    public void setPlaceholderColor(int color) {
+        mPlaceholderColor = color;
+    }
+
+    @Override
+    public void drawItem(Canvas canvas, ItemRenderState state) {
+        final CharSequence text = state.getText();
+        final TextPaint paint = state.getPaint();
+        final float textScale = state.getTextScale();
+        final float centerX = state.getCenterX();
+        final float centerY = state.getCenterY();
+        final String key = mSource.getIconKey(state.getPosition());
+        if (key == null) {
+            drawText(canvas, text, centerX, centerY, state.getBaseline(), textScale, paint);
+            return;
+        }
+
+        // 图标和文字作为一个整体水平居中，图标与文字之间的间距为图标尺寸的1/4
+        final int size = mIconSize > 0 ? mIconSize : state.getItemHeight() * 3 / 4;
+        final float gap = size / 4f;
+        final float textWidth = paint.measureText(text, 0, text.length()) * textScale;
+        final float left = centerX - (size + gap + textWidth) / 2;
+        final float top = centerY - size / 2f;
+
+        final Bitmap icon = mCache.get(key, size, mSource, state.getWheelView());
+        if (icon != null) {
+            mIconPaint.setAlpha(state.getAlpha());
+            canvas.drawBitmap(icon, left + (size - icon.getWidth()) / 2f,
+                    top + (size - icon.getHeight()) / 2f, mIconPaint);
+        } else {
+            final int color = mPlaceholderColor;
+            mPlaceholderPaint.setColor(color);
+            mPlaceholderPaint.setAlpha(Color.alpha(color) * state.getAlpha() / 255);
+            mPlaceholderRect.set((int) left, (int) top, (int) left + size, (int) top + size);
+            canvas.drawRect(mPlaceholderRect, mPlaceholderPaint);
+        }
+        drawText(canvas, text, left + size + gap + textWidth / 2, centerY, state.getBaseline(), textScale, paint);
+    }
+
+    private static void drawText(Canvas canvas, CharSequence text, float x, float centerY, float baseline,
+                                 float scale, TextPaint paint) {
+        if (scale != 1) {
+            canvas.save();
+            canvas.scale(scale, scale, x, centerY);
+            canvas.drawText(text, 0, text.length(), x, baseline, paint);
+            canvas.restore();
+        } else {
+            canvas.drawText(text, 0, text.length(), x, baseline, paint);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Bitmap;
+import android.util.SparseArray;
+
+/**
+ * 按字节数限制容量的选项位图缓存，超出容量时淘汰最久未使用的位图
+ *
+ * @author cncoderx
+ */
+class ItemBitmapCache {
+    private final SparseArray<Entry> mEntries = new SparseArray<>();
+    // 链表头为最近使用的位图，链表尾为最久未使用的位图
+    private Entry mHead;
+    private Entry mTail;
+    private int mMaxSize;
+    private int mSize;
+
+    ItemBitmapCache(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * @param position 选项在数据源中的位置
+     * @param selected 是否为选中颜色
+     * @return 缓存的键值
+     */
+    static int keyOf(int position, boolean selected) {
+        return selected ? position * 2 + 1 : position * 2;
+    }
+
+    Bitmap get(int key) {
+        Entry entry = mEntries.get(key);
+        if (entry == null) return null;
+        if (entry != mHead) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+        return entry.bitmap;
+    }
+
+    void put(int key, Bitmap bitmap) {
+        Entry entry = mEntries.get(key);
+        if (entry != null) {
+            mSize -= entry.size;
+            unlink(entry);
+        } else {
+            entry = new Entry();
+            entry.key = key;
+            mEntries.put(key, entry);
+        }
+        entry.bitmap = bitmap;
+        entry.size = bitmap.getRowBytes() * bitmap.getHeight();
+        mSize += entry.size;
+        linkFirst(entry);
+        trimToSize(mMaxSize);
+    }
+
+    void remove(int key) {
+        Entry entry = mEntries.get(key);
+        if (entry == null) return;
+
+        unlink(entry);
+        mEntries.remove(key);
+        mSize -= entry.size;
+    }
+
+    /**
+     * 移除数据源中[start, end)范围内选项的位图
+     */
+    void removeRange(int start, int end) {
+        Entry entry = mHead;
+        while (entry != null) {
+            final Entry next = entry.next;
+            final int position = entry.key / 2;
+            if (position >= start && position < end) {
+                unlink(entry);
+                mEntries.remove(entry.key);
+                mSize -= entry.size;
+            }
+            entry = next;
+        }
+    }
+
+    void clear() {
+        mEntries.clear();
+        mHead = mTail = null;
+        mSize = 0;
+    }
+
+    int getMaxSize() {
+        return mMaxSize;
+    }
+
+    void setMaxSize(int maxSize) {
+        mMaxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    private void trimToSize(int maxSize) {
+        // 至少保留最近使用的一张位图，避免单张位图超出容量时反复创建
+        while (mSize > maxSize && mTail != null && mTail != mHead) {
+            Entry eldest = mTail;
+            unlink(eldest);
+            mEntries.remove(eldest.key);
+            mSize -= eldest.size;
+        }
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.prev = null;
+        entry.next = mHead;
+        if (mHead != null) {
+            mHead.prev = entry;
+        }
+        mHead = entry;
+        if (mTail == null) {
+            mTail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            mHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            mTail = entry.prev;
+        }
+        entry.prev = entry.next = null;
+    }
+
+    static final class Entry {
+        int key;
+        int size;
+        Bitmap bitmap;
+        Entry prev;
+        Entry next;
+    }
+}
@@ -0,0 +1,103 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 一帧中某个可见选项的布局信息，由{@link WheelLayoutEngine}计算并重复使用
+ *
+ * @author cncoderx
+ */
+public final class ItemLayout {
+    /**
+     * 选项位于上分界线上方
+     */
+    public static final int BAND_TOP = 0;
+    /**
+     * 选项与上分界线相交
+     */
+    public static final int BAND_CROSS_TOP = 1;
+    /**
+     * 选项位于两条分界线之间
+     */
+    public static final int BAND_MIDDLE = 2;
+    /**
+     * 选项与下分界线相交
+     */
+    public static final int BAND_CROSS_BOTTOM = 3;
+    /**
+     * 选项位于下分界线下方
+     */
+    public static final int BAND_BOTTOM = 4;
+
+    int index;
+    int position;
+    int range;
+    int band;
+    float selectedFraction;
+
+    float translateY;
+    float translateZ;
+    float rotate;
+    int alpha;
+
+    /**
+     * @return 滚轮上的序号，循环滚动时可能超出数据源的范围
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return 在数据源中的位置
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return 和中间选项的距离，负数表示位于中间选项的上方
+     */
+    public int getRange() {
+        return range;
+    }
+
+    /**
+     * @return 所在的区域，取值为BAND_*
+     */
+    public int getBand() {
+        return band;
+    }
+
+    /**
+     * @return 选项处于两条分界线之间的比例，完全选中时为1
+     */
+    public float getSelectedFraction() {
+        return selectedFraction;
+    }
+
+    /**
+     * @return 中心点在y轴上相对于滚轮中心的位移
+     */
+    public float getTranslateY() {
+        return translateY;
+    }
+
+    /**
+     * @return 在z轴上的位移，普通滚轮为0
+     */
+    public float getTranslateZ() {
+        return translateZ;
+    }
+
+    /**
+     * @return 绕x轴旋转的角度，普通滚轮为0
+     */
+    public float getRotate() {
+        return rotate;
+    }
+
+    /**
+     * @return 未选中部分的透明度
+     */
+    public int getAlpha() {
+        return alpha;
+    }
+}
@@ -0,0 +1,138 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Rect;
+import android.text.TextPaint;
+
+/**
+ * 传递给{@link ItemRenderer}的选项绘制状态，由滚轮重复使用，只在一次绘制调用中有效
+ *
+ * @author cncoderx
+ */
+public final class ItemRenderState {
+    final WheelView view;
+    ItemLayout item;
+    CharSequence text;
+    float textScale;
+    float centerX;
+    float centerY;
+    float baseline;
+    boolean selected;
+    TextPaint paint;
+    Rect clipRect;
+
+    ItemRenderState(WheelView view) {
+        this.view = view;
+    }
+
+    /**
+     * @return 正在绘制的滚轮
+     */
+    public WheelView getWheelView() {
+        return view;
+    }
+
+    /**
+     * @return 选项的高度
+     */
+    public int getItemHeight() {
+        return view.mItemHeight;
+    }
+
+    /**
+     * @return 选项的布局信息
+     */
+    public ItemLayout getItem() {
+        return item;
+    }
+
+    /**
+     * @return 滚轮上的序号，循环滚动时可能超出数据源的范围
+     */
+    public int getIndex() {
+        return item.index;
+    }
+
+    /**
+     * @return 在数据源中的位置
+     */
+    public int getPosition() {
+        return item.position;
+    }
+
+    /**
+     * @return 选项所在的区域，取值为ItemLayout.BAND_*
+     */
+    public int getBand() {
+        return item.band;
+    }
+
+    /**
+     * @return 选项处于两条分界线之间的比例，完全选中时为1
+     */
+    public float getSelectedFraction() {
+        return item.selectedFraction;
+    }
+
+    /**
+     * @return 选项的文字，开启文字自适应时为测量后的文字
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * @return 文字自适应宽度时的缩放比例，不需要缩放时为1
+     */
+    public float getTextScale() {
+        return textScale;
+    }
+
+    /**
+     * @return 选项中心点的x坐标
+     */
+    public float getCenterX() {
+        return centerX;
+    }
+
+    /**
+     * @return 选项中心点的y坐标，包含拖动时不足一个像素的偏移量
+     */
+    public float getCenterY() {
+        return centerY;
+    }
+
+    /**
+     * @return 文字垂直居中时基线的y坐标
+     */
+    public float getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * @return 当前绘制的区域是否位于两条分界线之间
+     */
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * @return 当前区域使用的画笔，已经设置了颜色和透明度，不要修改
+     */
+    public TextPaint getPaint() {
+        return paint;
+    }
+
+    /**
+     * @return 当前区域的透明度
+     */
+    public int getAlpha() {
+        return paint.getAlpha();
+    }
+
+    /**
+     * @return 当前绘制的区域
+     */
+    public Rect getClipRect() {
+        return clipRect;
+    }
+}
@@ -0,0 +1,20 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Canvas;
+
+/**
+ * 自定义选项的绘制，例如图标加文字、两行文字或者角标。裁剪和3D滚轮的投影变换仍然由滚轮完成，
+ * 渲染器只需要以选项的中心点绘制内容
+ *
+ * @author cncoderx
+ */
+public interface ItemRenderer {
+    /**
+     * 绘制一个选项。画布已经裁剪到选项所在的区域，与分界线相交的选项会在两侧的区域各调用一次。
+     * 每一帧都会调用，为了滑行时不产生卡顿，不要在这里创建对象
+     *
+     * @param canvas 画布
+     * @param state 选项的绘制状态，只在本次调用中有效
+     */
+    void drawItem(Canvas canvas, ItemRenderState state);
+}
@@ -0,0 +1,132 @@
+package com.cncoderx.wheelview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 以列表保存所有选项的数据源。纯文本选项的字符连续保存在一个数组中，
+ * 选项很多时比逐个保存字符串占用更少的内存，{@link #getItem(int)}每次返回新的字符串
+ *
+ * @author cncoderx
+ */
+public class ListWheelAdapter extends BaseWheelAdapter {
+    final PackedEntryList mEntries = new PackedEntryList();
+    // 绘制时重复使用的选项视图
+    private final PackedEntryList.CharView mDrawingItem = new PackedEntryList.CharView();
+
+    public ListWheelAdapter(CharSequence... entries) {
+        if (entries != null && entries.length > 0) {
+            mEntries.addAll(Arrays.asList(entries));
+        }
+    }
+
+    public ListWheelAdapter(Collection<? extends CharSequence> entries) {
+        if (entries != null && entries.size() > 0) {
+            mEntries.addAll(entries);
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return mEntries.size();
+    }
+
+    @Override
+    public CharSequence getItem(int index) {
+        return mEntries.get(index);
+    }
+
+    @Override
+    CharSequence getDrawingItem(int index) {
+        return mEntries.bind(mDrawingItem, index);
+    }
+
+    @Override
+    List<? extends CharSequence> snapshotItems() {
+        return mEntries.copy();
+    }
+
+    /**
+     * 在末尾添加选项
+     */
+    public void append(CharSequence... entries) {
+        if (entries != null) {
+            append(Arrays.asList(entries));
+        }
+    }
+
+    /**
+     * 在末尾添加选项
+     */
+    public void append(Collection<? extends CharSequence> entries) {
+        if (entries == null || entries.isEmpty()) return;
+
+        final int start = mEntries.size();
+        mEntries.addAll(entries);
+        notifyItemRangeInserted(start, entries.size());
+    }
+
+    /**
+     * 删除从start开始的count个选项
+     */
+    public void remove(int start, int count) {
+        if (count <= 0) return;
+
+        mEntries.replace(start, start + count, Collections.<CharSequence>emptyList());
+        notifyItemRangeRemoved(start, count);
+    }
+
+    /**
+     * 将从start开始的count个选项替换为新的选项，新选项的数量可以与count不同
+     */
+    public void replace(int start, int count, Collection<? extends CharSequence> entries) {
+        mEntries.replace(start, start + count,
+                entries == null ? Collections.<CharSequence>emptyList() : entries);
+        notifyReplaced(start, count, entries == null ? 0 : entries.size());
+    }
+
+    /**
+     * 替换所有选项。只有与原选项不同的部分会通知变化，例如28天变为31天时只会通知末尾插入了3个选项
+     */
+    public void setEntries(CharSequence... entries) {
+        setEntries(entries == null ? Collections.<CharSequence>emptyList() : Arrays.asList(entries));
+    }
+
+    /**
+     * 替换所有选项。只有与原选项不同的部分会通知变化，例如28天变为31天时只会通知末尾插入了3个选项
+     */
+    public void setEntries(Collection<? extends CharSequence> entries) {
+        final List<CharSequence> newEntries = entries == null
+                ? Collections.<CharSequence>emptyList() : new ArrayList<CharSequence>(entries);
+        final int oldSize = mEntries.size();
+        final int newSize = newEntries.size();
+        final int minSize = Math.min(oldSize, newSize);
+
+        // 跳过首尾相同的选项，只替换中间不同的部分
+        int prefix = 0;
+        while (prefix < minSize && mEntries.contentEquals(prefix, newEntries.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix
+                && mEntries.contentEquals(oldSize - suffix - 1, newEntries.get(newSize - suffix - 1))) {
+            suffix++;
+        }
+        if (prefix + suffix == oldSize && oldSize == newSize) return;
+
+        replace(prefix, oldSize - prefix - suffix, newEntries.subList(prefix, newSize - suffix));
+    }
+
+    private void notifyReplaced(int start, int oldCount, int newCount) {
+        final int common = Math.min(oldCount, newCount);
+        notifyItemRangeChanged(start, common);
+        if (newCount > oldCount) {
+            notifyItemRangeInserted(start + common, newCount - oldCount);
+        } else if (newCount < oldCount) {
+            notifyItemRangeRemoved(start + common, oldCount - newCount);
+        }
+    }
+}
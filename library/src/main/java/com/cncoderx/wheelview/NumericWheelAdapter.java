@@ -0,0 +1,190 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 数值范围的数据源，只保存最小值、最大值和步长，选项文字在显示时生成并缓存
+ *
+ * @author cncoderx
+ */
+public class NumericWheelAdapter extends BaseWheelAdapter {
+    // 文字缓存的最大容量，选项数量不超过该值时所有文字只会生成一次
+    private static final int MAX_CACHE_SIZE = 256;
+
+    private int mMinValue;
+    private int mMaxValue;
+    private int mStep;
+
+    private String mPrefix;
+    private String mSuffix;
+    private int mMinDigits;
+
+    private final StringBuilder mLabelBuilder = new StringBuilder(16);
+    private int[] mCacheKeys;
+    private String[] mCacheLabels;
+
+    public NumericWheelAdapter(int minValue, int maxValue) {
+        this(minValue, maxValue, 1);
+    }
+
+    /**
+     * @param minValue 最小值
+     * @param maxValue 最大值，小于最小值时没有选项
+     * @param step 步长
+     * @throws IllegalArgumentException 步长不是正数，或者选项数量超出int的范围
+     */
+    public NumericWheelAdapter(int minValue, int maxValue, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+        checkRange(minValue, maxValue, step);
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mStep = step;
+        resetCache();
+    }
+
+    @Override
+    public int getCount() {
+        return (int) count(mMinValue, mMaxValue, mStep);
+    }
+
+    private static long count(int minValue, int maxValue, int step) {
+        if (maxValue < minValue) return 0;
+        return ((long) maxValue - minValue) / step + 1;
+    }
+
+    private static void checkRange(int minValue, int maxValue, int step) {
+        if (count(minValue, maxValue, step) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many values between " + minValue + " and " + maxValue);
+        }
+    }
+
+    @Override
+    public CharSequence getItem(int index) {
+        final int slot = index & (mCacheLabels.length - 1);
+        String label = mCacheLabels[slot];
+        if (label == null || mCacheKeys[slot] != index) {
+            label = formatLabel(getValue(index));
+            mCacheKeys[slot] = index;
+            mCacheLabels[slot] = label;
+        }
+        return label;
+    }
+
+    /**
+     * @param index 选项的位置
+     * @return 该位置对应的数值
+     */
+    public int getValue(int index) {
+        return mMinValue + index * mStep;
+    }
+
+    /**
+     * @param value 数值
+     * @return 最接近该数值的选项位置，与两个选项的距离相同时返回较大的选项，超出范围时返回第一个或者最后一个选项；
+     * 没有选项时返回-1
+     */
+    public int indexOf(int value) {
+        final int count = getCount();
+        if (count == 0) return -1;
+        if (value <= mMinValue) return 0;
+        final long index = ((long) value - mMinValue + mStep / 2) / mStep;
+        return index < count ? (int) index : count - 1;
+    }
+
+    public int getMinValue() {
+        return mMinValue;
+    }
+
+    public int getMaxValue() {
+        return mMaxValue;
+    }
+
+    public int getStep() {
+        return mStep;
+    }
+
+    /**
+     * 修改数值范围。最小值不变时只通知末尾选项的增加或删除，滚轮会保持当前选中的选项
+     *
+     * @param minValue 最小值
+     * @param maxValue 最大值，小于最小值时没有选项
+     * @throws IllegalArgumentException 选项数量超出int的范围
+     */
+    public void setRange(int minValue, int maxValue) {
+        if (minValue == mMinValue && maxValue == mMaxValue) return;
+
+        checkRange(minValue, maxValue, mStep);
+
+        final int oldCount = getCount();
+        final boolean sameStart = minValue == mMinValue;
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        resetCache();
+
+        final int count = getCount();
+        if (!sameStart) {
+            notifyDataSetChanged();
+        } else if (count > oldCount) {
+            notifyItemRangeInserted(oldCount, count - oldCount);
+        } else if (count < oldCount) {
+            notifyItemRangeRemoved(count, oldCount - count);
+        }
+    }
+
+    /**
+     * 设置选项文字的格式，例如前缀为null、最少位数为2、后缀为"分"时，5显示为"05分"
+     *
+     * @param prefix 前缀
+     * @param minDigits 数字的最少位数，不足时在前面补0
+     * @param suffix 后缀
+     */
+    public void setFormat(String prefix, int minDigits, String suffix) {
+        mPrefix = prefix;
+        mMinDigits = minDigits;
+        mSuffix = suffix;
+        resetCache();
+        notifyItemRangeChanged(0, getCount());
+    }
+
+    private void resetCache() {
+        // 缓存容量为不小于选项数量的2的幂
+        int size = 1;
+        final int count = getCount();
+        while (size < count && size < MAX_CACHE_SIZE) {
+            size <<= 1;
+        }
+        if (mCacheLabels == null || mCacheLabels.length != size) {
+            mCacheKeys = new int[size];
+            mCacheLabels = new String[size];
+        } else {
+            for (int i = 0; i < size; i++) {
+                mCacheLabels[i] = null;
+            }
+        }
+    }
+
+    private String formatLabel(int value) {
+        final StringBuilder sb = mLabelBuilder;
+        sb.setLength(0);
+        if (mPrefix != null) {
+            sb.append(mPrefix);
+        }
+        long abs = value;
+        if (abs < 0) {
+            sb.append('-');
+            abs = -abs;
+        }
+        int digits = 1;
+        for (long n = abs; n >= 10; n /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < mMinDigits; i++) {
+            sb.append('0');
+        }
+        sb.append(abs);
+        if (mSuffix != null) {
+            sb.append(mSuffix);
+        }
+        return sb.toString();
+    }
+}
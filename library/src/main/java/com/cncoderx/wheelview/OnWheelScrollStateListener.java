@@ -0,0 +1,37 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 滚轮滚动状态的监听器
+ *
+ * @author cncoderx
+ */
+public interface OnWheelScrollStateListener {
+    /**
+     * 滚轮静止
+     */
+    int SCROLL_STATE_IDLE = 0;
+    /**
+     * 用户正在拖动滚轮
+     */
+    int SCROLL_STATE_DRAGGING = 1;
+    /**
+     * 滚轮正在滑行或者调整位置
+     */
+    int SCROLL_STATE_SETTLING = 2;
+
+    /**
+     * 滚动状态发生变化时回调
+     *
+     * @param view 滚轮
+     * @param scrollState 新的滚动状态
+     */
+    void onScrollStateChanged(WheelView view, int scrollState);
+
+    /**
+     * 滚轮停止滚动并对齐到选项后回调，每次滚动只会回调一次
+     *
+     * @param view 滚轮
+     * @param index 选中的选项
+     */
+    void onSelectionSettled(WheelView view, int index);
+}
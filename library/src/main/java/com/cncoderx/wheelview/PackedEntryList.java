@@ -0,0 +1,316 @@
+package com.cncoderx.wheelview;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.RandomAccess;
+
+/**
+ * 紧凑保存选项文字的列表。所有纯文本选项的字符连续保存在一个数组中，并以偏移量表定位每个选项，
+ * 不需要为每个选项保留一个String对象；带有样式等无法只保存字符的选项直接保存引用。
+ * 与ArrayList相同，数组预留一部分容量，修改时在原数组中平移选项，连续追加的均摊复杂度为O(1)。
+ * {@link #get(int)}每次返回新的字符串，绘制时使用{@link #bind(CharView, int)}避免创建对象
+ *
+ * @author cncoderx
+ */
+final class PackedEntryList extends AbstractList<CharSequence> implements RandomAccess {
+    private static final char[] EMPTY_CHARS = new char[0];
+    // 值为null的选项
+    private static final Object NULL_ENTRY = new Object();
+    private static final int MIN_CAPACITY = 16;
+
+    private char[] mChars = EMPTY_CHARS;
+    // 第i个选项的字符范围为[mOffsets[i], mOffsets[i + 1])
+    private int[] mOffsets = {0};
+    // 不能只保存字符的选项，没有这类选项时为null
+    private Object[] mReferences;
+    private int mReferenceCount;
+    private int mSize;
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public CharSequence get(int index) {
+        checkIndex(index);
+        final Object reference = getReference(index);
+        if (reference != null) {
+            return reference == NULL_ENTRY ? null : (CharSequence) reference;
+        }
+        final int start = mOffsets[index];
+        return new String(mChars, start, mOffsets[index + 1] - start);
+    }
+
+    /**
+     * 将选项的文字绑定到可以重复使用的视图上，不会创建对象
+     *
+     * @return 纯文本选项返回绑定后的视图，其他选项返回保存的引用
+     */
+    CharSequence bind(CharView view, int index) {
+        checkIndex(index);
+        final Object reference = getReference(index);
+        if (reference != null) {
+            return reference == NULL_ENTRY ? null : (CharSequence) reference;
+        }
+        view.mChars = mChars;
+        view.mStart = mOffsets[index];
+        view.mEnd = mOffsets[index + 1];
+        return view;
+    }
+
+    /**
+     * @return 选项的内容是否与指定的文字相同，比较时不会创建对象
+     */
+    boolean contentEquals(int index, CharSequence text) {
+        checkIndex(index);
+        final Object reference = getReference(index);
+        if (reference != null) {
+            return reference == NULL_ENTRY ? text == null : reference.equals(text);
+        }
+        if (!isPackable(text)) return false;
+
+        final int start = mOffsets[index];
+        final int length = mOffsets[index + 1] - start;
+        if (text.length() != length) return false;
+        final char[] chars = mChars;
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public CharSequence set(int index, CharSequence element) {
+        final CharSequence old = get(index);
+        replace(index, index + 1, Collections.singletonList(element));
+        return old;
+    }
+
+    @Override
+    public void add(int index, CharSequence element) {
+        addAll(index, Collections.singletonList(element));
+    }
+
+    @Override
+    public CharSequence remove(int index) {
+        final CharSequence old = get(index);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends CharSequence> c) {
+        return addAll(mSize, c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends CharSequence> c) {
+        if (index < 0 || index > mSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+        }
+        if (c.isEmpty()) return false;
+
+        replace(index, index, c);
+        return true;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) return;
+
+        replace(fromIndex, toIndex, Collections.<CharSequence>emptyList());
+    }
+
+    /**
+     * 将[fromIndex, toIndex)范围内的选项替换为新的选项，所有修改都通过这里完成。
+     * 与ArrayList相同，容量不足时按1.5倍扩容，其余情况在原数组中平移后面的选项
+     */
+    void replace(int fromIndex, int toIndex, Collection<? extends CharSequence> c) {
+        if (fromIndex < 0 || toIndex > mSize || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + mSize);
+        }
+        final CharSequence[] entries = c.toArray(new CharSequence[c.size()]);
+        final int count = entries.length;
+        final int removed = toIndex - fromIndex;
+        final int oldSize = mSize;
+        final int newSize = oldSize - removed + count;
+
+        int charCount = 0;
+        int referenceCount = 0;
+        for (CharSequence entry : entries) {
+            if (isPackable(entry)) {
+                charCount += entry.length();
+            } else {
+                referenceCount++;
+            }
+        }
+
+        final int charStart = mOffsets[fromIndex];
+        final int charEnd = mOffsets[toIndex];
+        final int oldLength = mOffsets[oldSize];
+        final int newLength = oldLength - (charEnd - charStart) + charCount;
+        mChars = grow(mChars, newLength);
+        mOffsets = grow(mOffsets, newSize + 1);
+        final char[] chars = mChars;
+        final int[] offsets = mOffsets;
+
+        // 先平移后面的选项，再写入新的选项
+        final int shift = charStart + charCount - charEnd;
+        System.arraycopy(chars, charEnd, chars, charStart + charCount, oldLength - charEnd);
+        System.arraycopy(offsets, toIndex + 1, offsets, fromIndex + count + 1, oldSize - toIndex);
+        if (shift != 0) {
+            for (int i = fromIndex + count + 1; i <= newSize; i++) {
+                offsets[i] += shift;
+            }
+        }
+        int position = charStart;
+        for (int i = 0; i < count; i++) {
+            final CharSequence entry = entries[i];
+            if (isPackable(entry)) {
+                final int length = entry.length();
+                if (entry instanceof String) {
+                    ((String) entry).getChars(0, length, chars, position);
+                } else {
+                    for (int j = 0; j < length; j++) {
+                        chars[position + j] = entry.charAt(j);
+                    }
+                }
+                position += length;
+            }
+            offsets[fromIndex + i + 1] = position;
+        }
+
+        if (mReferences != null) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (mReferences[i] != null) {
+                    mReferenceCount--;
+                }
+            }
+        }
+        mReferenceCount += referenceCount;
+        if (mReferenceCount == 0) {
+            mReferences = null;
+        } else {
+            if (mReferences == null) {
+                mReferences = new Object[Math.max(newSize, MIN_CAPACITY)];
+            } else {
+                mReferences = grow(mReferences, newSize);
+                System.arraycopy(mReferences, toIndex, mReferences, fromIndex + count, oldSize - toIndex);
+                // 释放移出范围的引用
+                for (int i = newSize; i < oldSize; i++) {
+                    mReferences[i] = null;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                final CharSequence entry = entries[i];
+                mReferences[fromIndex + i] = isPackable(entry) ? null : (entry == null ? NULL_ENTRY : entry);
+            }
+        }
+
+        mSize = newSize;
+        modCount++;
+    }
+
+    /**
+     * @return 不包含多余容量的副本，与当前列表不共享数组，可以交给其他线程读取
+     */
+    PackedEntryList copy() {
+        final PackedEntryList copy = new PackedEntryList();
+        copy.mChars = Arrays.copyOf(mChars, mOffsets[mSize]);
+        copy.mOffsets = Arrays.copyOf(mOffsets, mSize + 1);
+        if (mReferences != null) {
+            copy.mReferences = Arrays.copyOf(mReferences, mSize);
+            copy.mReferenceCount = mReferenceCount;
+        }
+        copy.mSize = mSize;
+        return copy;
+    }
+
+    /**
+     * 释放多余的容量
+     */
+    void trimToSize() {
+        final int length = mOffsets[mSize];
+        if (mChars.length > length) {
+            mChars = Arrays.copyOf(mChars, length);
+        }
+        if (mOffsets.length > mSize + 1) {
+            mOffsets = Arrays.copyOf(mOffsets, mSize + 1);
+        }
+        if (mReferences != null && mReferences.length > mSize) {
+            mReferences = Arrays.copyOf(mReferences, mSize);
+        }
+    }
+
+    private static char[] grow(char[] array, int capacity) {
+        if (array.length >= capacity) return array;
+        return Arrays.copyOf(array, newCapacity(array.length, capacity));
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        if (array.length >= capacity) return array;
+        return Arrays.copyOf(array, newCapacity(array.length, capacity));
+    }
+
+    private static Object[] grow(Object[] array, int capacity) {
+        if (array.length >= capacity) return array;
+        return Arrays.copyOf(array, newCapacity(array.length, capacity));
+    }
+
+    private static int newCapacity(int oldCapacity, int minCapacity) {
+        return Math.max(minCapacity, Math.max(oldCapacity + (oldCapacity >> 1), MIN_CAPACITY));
+    }
+
+    private Object getReference(int index) {
+        return mReferences == null ? null : mReferences[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+        }
+    }
+
+    /**
+     * @return 是否可以只保存选项的字符，带有样式的文字需要保存引用
+     */
+    private static boolean isPackable(CharSequence entry) {
+        return entry instanceof String || entry instanceof StringBuilder
+                || entry instanceof StringBuffer || entry instanceof CharView;
+    }
+
+    /**
+     * 指向字符数组中一段字符的视图，绘制时重复使用，只在本次绘制中有效，列表修改后内容会改变
+     */
+    static final class CharView implements CharSequence {
+        char[] mChars = EMPTY_CHARS;
+        int mStart;
+        int mEnd;
+
+        @Override
+        public int length() {
+            return mEnd - mStart;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= mEnd - mStart) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + (mEnd - mStart));
+            }
+            return mChars[mStart + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(mChars, mStart, mEnd - mStart);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.cncoderx.wheelview;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 分页加载的数据源，适用于数据库等选项很多、无法一次性读取的情况。
+ * 选项按照固定大小分页，在后台线程中读取当前选项附近的页，尚未读取的选项显示为占位文字；
+ * 内存中最多保留指定数量的页，超出时淘汰最久未使用的页，但当前选项变化后读取过的页不会被淘汰，
+ * 可见的选项跨越的页数超过容量时，实际保留的页数会超出指定的数量。
+ * 页读取完成后只通知该页的选项发生变化，页不在可见范围内时滚轮不会重绘。
+ * 读取失败的页在{@link #RETRY_DELAY_MILLIS}毫秒内不会重新读取。
+ * 除了{@link PageSource#loadPage(int, int)}之外，所有方法都需要在主线程中调用
+ *
+ * @author cncoderx
+ */
+public class PagedWheelAdapter extends BaseWheelAdapter {
+    /**
+     * 页的数据来源
+     */
+    public interface PageSource {
+        /**
+         * 读取一页选项，在后台线程中调用
+         *
+         * @param start 第一个选项的位置
+         * @param count 选项的数量
+         * @return 读取的选项，数量不足count时，剩余的选项仍显示为占位文字。
+         * 抛出RuntimeException时该页仍显示为占位文字，{@link PagedWheelAdapter#RETRY_DELAY_MILLIS}毫秒之后需要该页时重新读取
+         */
+        List<? extends CharSequence> loadPage(int start, int count);
+    }
+
+    /**
+     * 读取失败的页重新读取之前等待的时间（毫秒）
+     */
+    public static final long RETRY_DELAY_MILLIS = 3000;
+
+    private static final String TAG = "PagedWheelAdapter";
+    private static final CharSequence DEFAULT_PLACEHOLDER = "…";
+
+    private final PageSource mSource;
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final int mPageSize;
+    private final int mMaxPages;
+
+    private int mCount;
+    private CharSequence mPlaceholder = DEFAULT_PLACEHOLDER;
+    // 当前选项前后预先读取的页数
+    private int mPrefetchPages = 1;
+
+    private final SparseArray<Page> mPages = new SparseArray<>();
+    private final SparseBooleanArray mPendingPages = new SparseBooleanArray();
+    // 读取失败的页及失败的时间
+    private final SparseArray<Long> mFailedPages = new SparseArray<>();
+    // 链表头为最近使用的页，链表尾为最久未使用的页
+    private Page mHead;
+    private Page mTail;
+    // 数据刷新后加1，用于丢弃刷新前开始读取的页
+    private int mGeneration;
+    // 当前选项变化后加1，与页中记录的值相同时说明该页在当前选项附近，不会被淘汰
+    private int mIndexStamp;
+
+    /**
+     * 使用{@link AsyncTask#THREAD_POOL_EXECUTOR}读取页
+     *
+     * @param source 页的数据来源
+     * @param count 选项的总数
+     * @param pageSize 每页的选项数量
+     * @param maxPages 内存中最多保留的页数
+     */
+    public PagedWheelAdapter(PageSource source, int count, int pageSize, int maxPages) {
+        this(source, count, pageSize, maxPages, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param source 页的数据来源
+     * @param count 选项的总数
+     * @param pageSize 每页的选项数量
+     * @param maxPages 内存中最多保留的页数，至少为3
+     * @param executor 读取页的线程池
+     */
+    public PagedWheelAdapter(PageSource source, int count, int pageSize, int maxPages, Executor executor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        if (maxPages < 3) {
+            throw new IllegalArgumentException("maxPages must be at least 3");
+        }
+        mSource = source;
+        mCount = count;
+        mPageSize = pageSize;
+        mMaxPages = maxPages;
+        mExecutor = executor;
+    }
+
+    @Override
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return 选项的文字，所在的页尚未读取时返回占位文字并开始读取该页
+     */
+    @Override
+    public CharSequence getItem(int index) {
+        final int pageIndex = index / mPageSize;
+        final Page page = getPage(pageIndex);
+        if (page == null) {
+            loadPage(pageIndex);
+            return mPlaceholder;
+        }
+        final CharSequence item = page.get(index - pageIndex * mPageSize);
+        return item == null ? mPlaceholder : item;
+    }
+
+    /**
+     * 只返回已经读取的选项，不会读取页，也不会改变页的使用顺序
+     */
+    @Override
+    CharSequence peekItem(int index) {
+        final int pageIndex = index / mPageSize;
+        final Page page = mPages.get(pageIndex);
+        return page == null ? null : page.get(index - pageIndex * mPageSize);
+    }
+
+    /**
+     * @return 选项所在的页是否已经读取
+     */
+    public boolean isLoaded(int index) {
+        return mPages.get(index / mPageSize) != null;
+    }
+
+    /**
+     * 滚轮当前的选项变化后，预先读取前后的页
+     */
+    @Override
+    protected void onCurrentIndexChanged(int index) {
+        mIndexStamp++;
+        if (index < 0 || mCount == 0) return;
+
+        final int pageIndex = index / mPageSize;
+        final int pageCount = (mCount + mPageSize - 1) / mPageSize;
+        // 不超过容量的一半，避免预先读取的页把可见的页淘汰
+        final int prefetch = Math.min(mPrefetchPages, (mMaxPages - 1) / 2);
+        for (int i = -prefetch; i <= prefetch; i++) {
+            final int page = pageIndex + i;
+            if (page >= 0 && page < pageCount && mPages.get(page) == null) {
+                loadPage(page);
+            }
+        }
+    }
+
+    public CharSequence getPlaceholder() {
+        return mPlaceholder;
+    }
+
+    /**
+     * 设置尚未读取的选项显示的文字
+     */
+    public void setPlaceholder(CharSequence placeholder) {
+        mPlaceholder = placeholder;
+        notifyItemRangeChanged(0, mCount);
+    }
+
+    public int getPrefetchPages() {
+        return mPrefetchPages;
+    }
+
+    /**
+     * 设置当前选项前后预先读取的页数，默认为1
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        mPrefetchPages = Math.max(0, prefetchPages);
+    }
+
+    /**
+     * 修改选项的总数并丢弃已经读取的页
+     */
+    public void setCount(int count) {
+        mCount = count;
+        clearPages();
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 丢弃已经读取的页，数据来源的内容变化后调用
+     */
+    public void refresh() {
+        clearPages();
+        notifyItemRangeChanged(0, mCount);
+    }
+
+    private void clearPages() {
+        mGeneration++;
+        mPages.clear();
+        mPendingPages.clear();
+        mFailedPages.clear();
+        mHead = mTail = null;
+    }
+
+    private Page getPage(int pageIndex) {
+        final Page page = mPages.get(pageIndex);
+        if (page == null) return null;
+
+        page.indexStamp = mIndexStamp;
+        if (page != mHead) {
+            unlink(page);
+            linkFirst(page);
+        }
+        return page;
+    }
+
+    private void loadPage(final int pageIndex) {
+        if (mPendingPages.get(pageIndex)) return;
+
+        final Long failedTime = mFailedPages.get(pageIndex);
+        if (failedTime != null) {
+            if (SystemClock.uptimeMillis() - failedTime < RETRY_DELAY_MILLIS) return;
+            mFailedPages.remove(pageIndex);
+        }
+        mPendingPages.put(pageIndex, true);
+        final int generation = mGeneration;
+        final int start = pageIndex * mPageSize;
+        final int count = Math.min(mPageSize, mCount - start);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<? extends CharSequence> items = null;
+                try {
+                    items = mSource.loadPage(start, count);
+                } catch (RuntimeException e) {
+                    // 读取失败时不保留该页，之后再次需要时重新读取
+                    Log.w(TAG, "Failed to load page " + pageIndex, e);
+                } finally {
+                    final List<? extends CharSequence> result = items;
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onPageLoaded(generation, pageIndex, result);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void onPageLoaded(int generation, int pageIndex, List<? extends CharSequence> items) {
+        // 刷新之前开始读取的页已经过期
+        if (generation != mGeneration) return;
+
+        mPendingPages.delete(pageIndex);
+        if (items == null) {
+            // 保留失败的记录，避免重绘时反复读取
+            mFailedPages.put(pageIndex, SystemClock.uptimeMillis());
+            return;
+        }
+
+        final Page page = new Page(pageIndex, items.toArray(new CharSequence[items.size()]));
+        // 当前选项附近读取的页，在当前选项变化之前不会被淘汰
+        page.indexStamp = mIndexStamp;
+        mPages.put(pageIndex, page);
+        linkFirst(page);
+        trimToSize();
+        notifyItemRangeChanged(pageIndex * mPageSize, Math.min(mPageSize, mCount - pageIndex * mPageSize));
+    }
+
+    /**
+     * 从最久未使用的页开始淘汰，跳过当前选项变化后读取过的页，
+     * 否则可见的页超出容量时，读取完成的页会淘汰另一个可见的页，重绘后又重新读取
+     */
+    private void trimToSize() {
+        Page page = mTail;
+        while (mPages.size() > mMaxPages && page != null) {
+            final Page prev = page.prev;
+            if (page.indexStamp != mIndexStamp) {
+                unlink(page);
+                mPages.remove(page.index);
+            }
+            page = prev;
+        }
+    }
+
+    private void linkFirst(Page page) {
+        page.prev = null;
+        page.next = mHead;
+        if (mHead != null) {
+            mHead.prev = page;
+        }
+        mHead = page;
+        if (mTail == null) {
+            mTail = page;
+        }
+    }
+
+    private void unlink(Page page) {
+        if (page.prev != null) {
+            page.prev.next = page.next;
+        } else {
+            mHead = page.next;
+        }
+        if (page.next != null) {
+            page.next.prev = page.prev;
+        } else {
+            mTail = page.prev;
+        }
+        page.prev = page.next = null;
+    }
+
+    static final class Page {
+        final int index;
+        final CharSequence[] items;
+        // 最后一次读取该页时的当前选项标记
+        int indexStamp;
+        Page prev;
+        Page next;
+
+        Page(int index, CharSequence[] items) {
+            this.index = index;
+            this.items = items;
+        }
+
+        CharSequence get(int offset) {
+            return offset < items.length ? items[offset] : null;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.cncoderx.wheelview;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 在后台线程中测量选项文字，并按照自适应方式调整超出宽度的文字，结果按选项位置缓存。
+ * 后台测量的同时会预热系统的文字排版缓存，主线程绘制时不需要重新排版。
+ * 缓存采用直接映射的方式，容量固定，查找时不会创建对象；
+ * 提交测量使用的缓冲区和画笔副本重复使用，只有文字被省略时才会创建新的文字
+ *
+ * @author cncoderx
+ */
+class TextFitter {
+    // 缩小文字时的最小比例，仍然超出宽度时省略末尾的文字
+    static final float MIN_SCALE = .5f;
+    private static final int CACHE_SIZE = 256;
+    // 同时在后台测量的批次数量，都在测量中时请求留到下一次提交
+    private static final int MAX_BATCHES = 2;
+
+    final WheelView mWheelView;
+    final int mMode;
+    Executor mExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final int[] mKeys = new int[CACHE_SIZE];
+    // 调整后的文字，为null时绘制原始的文字
+    final CharSequence[] mTexts = new CharSequence[CACHE_SIZE];
+    final float[] mScales = new float[CACHE_SIZE];
+    // 已经提交测量但尚未返回结果的选项位置
+    private final int[] mPendingKeys = new int[CACHE_SIZE];
+
+    private int[] mRequests = new int[16];
+    private int mRequestCount;
+    // 样式或选项变化后加1，用于丢弃过期的测量结果
+    private int mGeneration;
+    // 画笔的副本，供后台线程读取，样式变化后重新复制，不会修改已经交给后台线程的副本
+    private TextPaint mPaint;
+    // 空闲的批次
+    private final Batch[] mFreeBatches = new Batch[MAX_BATCHES];
+    private int mFreeBatchCount;
+    // 上一次预先测量时的当前选项
+    private int mPrefetchedIndex = -1;
+    private boolean isFlushPosted;
+
+    private final Runnable mFlushTask = new Runnable() {
+        @Override
+        public void run() {
+            isFlushPosted = false;
+            flush(mWheelView.getCurrentIndex(), mWheelView.mItemCount * 2);
+        }
+    };
+
+    TextFitter(WheelView wheelView, int mode) {
+        mWheelView = wheelView;
+        mMode = mode;
+        for (int i = 0; i < MAX_BATCHES; i++) {
+            mFreeBatches[mFreeBatchCount++] = new Batch();
+        }
+        clear();
+    }
+
+    /**
+     * @param position 选项的位置
+     * @return 测量结果在缓存中的位置，尚未测量时返回-1并加入测量请求
+     */
+    int find(int position) {
+        final int slot = position & (CACHE_SIZE - 1);
+        if (mKeys[slot] == position) return slot;
+
+        request(position);
+        return -1;
+    }
+
+    /**
+     * 丢弃所有的测量结果，文字大小或者控件宽度变化后调用
+     */
+    void clear() {
+        clear(0, Integer.MAX_VALUE);
+        mPaint = null;
+    }
+
+    /**
+     * 丢弃数据源中[start, end)范围内选项的测量结果，其他选项的结果仍然有效。
+     * 正在测量的结果无法区分范围，全部丢弃，尚未返回结果的选项在下次绘制时重新请求
+     */
+    void clear(int start, int end) {
+        mGeneration++;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            final int position = mKeys[i];
+            if (position >= start && position < end) {
+                mKeys[i] = -1;
+                mTexts[i] = null;
+            }
+            mPendingKeys[i] = -1;
+        }
+        mRequestCount = 0;
+        mPrefetchedIndex = -1;
+    }
+
+    private void request(int position) {
+        final int slot = position & (CACHE_SIZE - 1);
+        if (mPendingKeys[slot] == position) return;
+
+        mPendingKeys[slot] = position;
+        if (mRequestCount == mRequests.length) {
+            final int[] requests = new int[mRequestCount * 2];
+            System.arraycopy(mRequests, 0, requests, 0, mRequestCount);
+            mRequests = requests;
+        }
+        mRequests[mRequestCount++] = position;
+    }
+
+    /**
+     * 绘制完成后调用，有新的请求或者当前选项变化时，在绘制结束后提交测量，不占用绘制的时间
+     *
+     * @param currentIndex 当前选中的选项
+     */
+    void scheduleFlush(int currentIndex) {
+        if (isFlushPosted || (mRequestCount == 0 && currentIndex == mPrefetchedIndex)) return;
+
+        isFlushPosted = true;
+        mHandler.post(mFlushTask);
+    }
+
+    /**
+     * 预先请求当前选项前后的选项，并将收集的请求提交到后台线程
+     *
+     * @param currentIndex 当前选中的选项
+     * @param range 前后预先测量的选项数量
+     */
+    void flush(int currentIndex, int range) {
+        final WheelView wheelView = mWheelView;
+        final int itemSize = wheelView.getItemSize();
+        if (currentIndex >= 0 && currentIndex != mPrefetchedIndex) {
+            mPrefetchedIndex = currentIndex;
+            for (int i = currentIndex - range; i <= currentIndex + range; i++) {
+                final int position = WheelMath.itemPosition(i, itemSize, wheelView.isCyclic());
+                if (position >= 0 && mKeys[position & (CACHE_SIZE - 1)] != position) {
+                    request(position);
+                }
+            }
+        }
+        if (mRequestCount == 0 || mFreeBatchCount == 0) return;
+
+        if (mPaint == null) {
+            mPaint = new TextPaint(wheelView.mTextPaint);
+        }
+        final Batch batch = mFreeBatches[--mFreeBatchCount];
+        mFreeBatches[mFreeBatchCount] = null;
+        // 选项文字在主线程中读取，后台线程只使用复制的字符
+        batch.prepare(mRequestCount, mGeneration, mPaint, wheelView.mClipRectMiddle.width(), mMode);
+        for (int i = 0; i < mRequestCount; i++) {
+            final int position = mRequests[i];
+            batch.add(i, position, wheelView.getDrawingItem(position));
+        }
+        mRequestCount = 0;
+        mExecutor.execute(batch);
+    }
+
+    /**
+     * 调整文字，使文字不超出可用的宽度
+     *
+     * @return 调整后的文字，缩放比例保存在scales[index]中
+     */
+    static CharSequence fit(CharSequence text, TextPaint paint, float availableWidth,
+                            int mode, float[] scales, int index) {
+        final float width = paint.measureText(text, 0, text.length());
+        if (width <= availableWidth || availableWidth <= 0) return text;
+
+        return fit(text, width, paint, availableWidth, mode, scales, index);
+    }
+
+    private static CharSequence fit(CharSequence text, float width, TextPaint paint, float availableWidth,
+                                    int mode, float[] scales, int index) {
+        float ellipsizeWidth = availableWidth;
+        if (mode == WheelView.TEXT_FIT_SHRINK) {
+            final float scale = Math.max(availableWidth / width, MIN_SCALE);
+            scales[index] = scale;
+            if (width * scale <= availableWidth) return text;
+            // 缩小到最小比例后仍然超出宽度，按缩小后的宽度省略
+            ellipsizeWidth = availableWidth / scale;
+        }
+        return TextUtils.ellipsize(text, paint, ellipsizeWidth, TextUtils.TruncateAt.END);
+    }
+
+    private void onFitted(Batch batch) {
+        if (batch.generation == mGeneration) {
+            boolean fitted = false;
+            for (int i = 0; i < batch.count; i++) {
+                final int position = batch.positions[i];
+                final int slot = position & (CACHE_SIZE - 1);
+                if (mPendingKeys[slot] == position) {
+                    mPendingKeys[slot] = -1;
+                }
+                mKeys[slot] = position;
+                mTexts[slot] = batch.fittedTexts[i];
+                mScales[slot] = batch.scales[i];
+                if (batch.fittedTexts[i] != null || batch.scales[i] != 1) {
+                    mWheelView.onItemTextFitted(position);
+                    fitted = true;
+                }
+            }
+            if (fitted) {
+                mWheelView.invalidate();
+            }
+        }
+        batch.recycle();
+        mFreeBatches[mFreeBatchCount++] = batch;
+        if (mRequestCount > 0) {
+            scheduleFlush(mPrefetchedIndex);
+        }
+    }
+
+    /**
+     * 一次提交到后台线程测量的选项，测量完成后回到主线程并重复使用
+     */
+    private final class Batch implements Runnable {
+        int count;
+        int generation;
+        int[] positions = new int[16];
+        // 带有样式等无法只复制字符的选项，其他选项为null
+        CharSequence[] texts = new CharSequence[16];
+        // 纯文本选项的字符，第i个选项的范围为[offsets[i], offsets[i + 1])
+        char[] chars = new char[256];
+        int[] offsets = new int[17];
+        // 调整后的文字，没有省略时为null
+        CharSequence[] fittedTexts = new CharSequence[16];
+        float[] scales = new float[16];
+        TextPaint paint;
+        float availableWidth;
+        int mode;
+
+        private final Runnable mDeliverTask = new Runnable() {
+            @Override
+            public void run() {
+                onFitted(Batch.this);
+            }
+        };
+
+        void prepare(int count, int generation, TextPaint paint, float availableWidth, int mode) {
+            this.count = count;
+            this.generation = generation;
+            this.paint = paint;
+            this.availableWidth = availableWidth;
+            this.mode = mode;
+            if (positions.length < count) {
+                final int capacity = Math.max(count, positions.length * 2);
+                positions = new int[capacity];
+                texts = new CharSequence[capacity];
+                offsets = new int[capacity + 1];
+                fittedTexts = new CharSequence[capacity];
+                scales = new float[capacity];
+            }
+            offsets[0] = 0;
+        }
+
+        void add(int index, int position, CharSequence item) {
+            positions[index] = position;
+            int end = offsets[index];
+            if (item instanceof String || item instanceof PackedEntryList.CharView
+                    || item instanceof StringBuilder) {
+                final int length = item.length();
+                if (end + length > chars.length) {
+                    final char[] newChars = new char[Math.max(end + length, chars.length * 2)];
+                    System.arraycopy(chars, 0, newChars, 0, end);
+                    chars = newChars;
+                }
+                if (item instanceof String) {
+                    ((String) item).getChars(0, length, chars, end);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        chars[end + i] = item.charAt(i);
+                    }
+                }
+                end += length;
+            } else {
+                texts[index] = item;
+            }
+            offsets[index + 1] = end;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < count; i++) {
+                scales[i] = 1;
+                fittedTexts[i] = null;
+                CharSequence text = texts[i];
+                if (text != null) {
+                    final CharSequence fitted = fit(text, paint, availableWidth, mode, scales, i);
+                    fittedTexts[i] = fitted != text ? fitted : null;
+                    continue;
+                }
+                final int start = offsets[i];
+                final int length = offsets[i + 1] - start;
+                final float width = paint.measureText(chars, start, length);
+                if (width <= availableWidth || availableWidth <= 0) continue;
+
+                // 超出宽度时才创建文字
+                text = new String(chars, start, length);
+                final CharSequence fitted = fit(text, width, paint, availableWidth, mode, scales, i);
+                fittedTexts[i] = fitted != text ? fitted : null;
+            }
+            mHandler.post(mDeliverTask);
+        }
+
+        void recycle() {
+            for (int i = 0; i < count; i++) {
+                texts[i] = null;
+                fittedTexts[i] = null;
+            }
+            paint = null;
+            count = 0;
+        }
+    }
+}
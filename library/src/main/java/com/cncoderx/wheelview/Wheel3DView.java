@@ -1,10 +1,12 @@
 package com.cncoderx.wheelview;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Camera;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.text.TextPaint;
 import android.util.AttributeSet;
 
 /**
@@ -13,6 +15,14 @@ import android.util.AttributeSet;
 public class Wheel3DView extends WheelView {
     private Camera mCamera;
     private Matrix mMatrix;
+    private final WheelProjection mProjection = new WheelProjection();
+
+    // 默认的位图缓存容量（字节）
+    public static final int DEFAULT_BITMAP_CACHE_SIZE = 2 * 1024 * 1024;
+
+    private ItemBitmapCache mBitmapCache;
+    private Canvas mBitmapCanvas;
+    private Paint mBitmapPaint;
 
     public Wheel3DView(Context context) {
         this(context, null);
@@ -22,6 +32,7 @@ public class Wheel3DView extends WheelView {
         super(context, attrs);
         mCamera = new Camera();
         mMatrix = new Matrix();
+        mLayoutEngine.setProjection(mProjection);
     }
 
     @Override
@@ -31,88 +42,193 @@ public class Wheel3DView extends WheelView {
         return innerHeight + padding;
     }
 
-    protected void drawItem(Canvas canvas, int index, int offset) {
-        CharSequence text = getCharSequence(index);
+    /**
+     * 开启后，每个选项的文字只会绘制一次到位图中，滚动时直接对位图进行投影变换，
+     * 避免每一帧都在透视矩阵下重新排版文字
+     *
+     * @param enabled 是否开启位图缓存
+     */
+    public void setBitmapCacheEnabled(boolean enabled) {
+        if (enabled == isBitmapCacheEnabled()) return;
+        if (enabled) {
+            mBitmapCache = new ItemBitmapCache(DEFAULT_BITMAP_CACHE_SIZE);
+            mBitmapCanvas = new Canvas();
+            mBitmapPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        } else {
+            mBitmapCache = null;
+            mBitmapCanvas = null;
+            mBitmapPaint = null;
+        }
+        invalidate();
+    }
+
+    public boolean isBitmapCacheEnabled() {
+        return mBitmapCache != null;
+    }
+
+    /**
+     * @param maxSize 位图缓存的容量（字节），超出时淘汰最久未使用的位图
+     */
+    public void setBitmapCacheSize(int maxSize) {
+        if (mBitmapCache != null) {
+            mBitmapCache.setMaxSize(maxSize);
+        }
+    }
+
+    @Override
+    public void setTextSize(int textSize) {
+        clearBitmapCache();
+        super.setTextSize(textSize);
+    }
+
+    @Override
+    public void setTextColor(int color) {
+        clearBitmapCache();
+        super.setTextColor(color);
+    }
+
+    @Override
+    public void setSelectedTextColor(int color) {
+        clearBitmapCache();
+        super.setSelectedTextColor(color);
+    }
+
+    @Override
+    void onAdapterDataChanged(int start, int end) {
+        super.onAdapterDataChanged(start, end);
+        if (mBitmapCache != null) {
+            mBitmapCache.removeRange(start, end);
+        }
+    }
+
+    @Override
+    public void setTextFitMode(int mode) {
+        clearBitmapCache();
+        super.setTextFitMode(mode);
+    }
+
+    @Override
+    void onItemTextFitted(int position) {
+        // 位图中保存的是调整之前的文字
+        if (mBitmapCache != null) {
+            mBitmapCache.remove(ItemBitmapCache.keyOf(position, false));
+            mBitmapCache.remove(ItemBitmapCache.keyOf(position, true));
+        }
+    }
+
+    @Override
+    void onItemRendererChanged() {
+        // 设置渲染器后不再使用位图缓存，恢复绘制文字时重新创建
+        clearBitmapCache();
+    }
+
+    @Override
+    boolean canDrawSinglePass() {
+        // 选中的文字有折射偏移，并且经过透视变换，无法用屏幕坐标的渐变切换颜色
+        return false;
+    }
+
+    private void clearBitmapCache() {
+        if (mBitmapCache != null) {
+            mBitmapCache.clear();
+        }
+    }
+
+    @Override
+    protected void drawItem(Canvas canvas, ItemLayout item) {
+        final int position = item.position;
+        CharSequence text = getItemText(position);
         if (text == null) return;
-        // 滚轮的半径
-        final int r = (getHeight() - getPaddingTop() - getPaddingBottom()) / 2;
-        // 和中间选项的距离
-        final int range = (index - mScroller.getItemIndex()) * mItemHeight - offset;
-        // 当滑动的角度和y轴垂直时（此时文字已经显示为一条线），不绘制文字
-        if (Math.abs(range) > r * Math.PI / 2) return;
+        if (mMetrics != null) {
+            mMetrics.mItemCount++;
+        }
+        if (mItemRenderer != null) {
+            prepareRenderState(item, text);
+        }
 
         final int centerX = mClipRectMiddle.centerX();
         final int centerY = mClipRectMiddle.centerY();
 
-        final double angle = (double) range / r;
         // 绕x轴滚动的角度
-        float rotate = (float) Math.toDegrees(-angle);
-        // 滚动的距离映射到x轴的长度
-//        float translateX = (float) (Math.cos(angle) * Math.sin(Math.PI / 36) * r * mToward);
-        // 滚动的距离映射到y轴的长度
-        float translateY = (float) (Math.sin(angle) * r);
+        float rotate = item.rotate;
+        // 滚动的距离映射到y轴的长度，拖动时按照不足一个像素的偏移量进行亚像素定位
+        float translateY = item.translateY - mScroller.getScrollFraction();
         // 滚动的距离映射到z轴的长度
-        float translateZ = (float) ((1 - Math.cos(angle)) * r);
+        float translateZ = item.translateZ;
+        int alpha = item.alpha;
         // 折射偏移量x
-        float refractX = getTextSize() * .05f;
-        // 透明度
-        int alpha = (int) (Math.cos(angle) * 255);
-
-        // 绘制与下分界线相交的文字
-        if (range > 0 && range < mItemHeight) {
-            canvas.save();
-            canvas.translate(refractX, 0);
-            canvas.clipRect(mClipRectMiddle);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mSelectedTextPaint);
-            canvas.restore();
-
-            mTextPaint.setAlpha(alpha);
-            canvas.save();
-            canvas.clipRect(mClipRectBottom);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
-            canvas.restore();
-        }
-        // 绘制下分界线下方的文字
-        else if (range >= mItemHeight) {
-            mTextPaint.setAlpha(alpha);
-            canvas.save();
-            canvas.clipRect(mClipRectBottom);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
-            canvas.restore();
-        }
-        // 绘制与上分界线相交的文字
-        else if (range < 0 && range > -mItemHeight) {
-            canvas.save();
-            canvas.translate(refractX, 0);
-            canvas.clipRect(mClipRectMiddle);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mSelectedTextPaint);
-            canvas.restore();
-
-            mTextPaint.setAlpha(alpha);
-            canvas.save();
-            canvas.clipRect(mClipRectTop);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
-            canvas.restore();
-        }
-        // 绘制上分界线上方的文字
-        else if (range <= -mItemHeight) {
-            mTextPaint.setAlpha(alpha);
-            canvas.save();
-            canvas.clipRect(mClipRectTop);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
-            canvas.restore();
-        }
-        // 绘制两条分界线之间的文字
-        else {
-            canvas.save();
-            canvas.translate(refractX, 0);
-            canvas.clipRect(mClipRectMiddle);
-            drawText(canvas, text, centerX, centerY, 0, translateY, translateZ, rotate, mSelectedTextPaint);
-            canvas.restore();
+        final float refractX = getTextSize() * .05f;
+
+        final float detail = mLevelOfDetail;
+        if (detail < 1) {
+            // 快速滑行时逐渐过渡到平面的布局，绘制质量为0时不再进行透视变换
+            rotate *= detail;
+            translateY = item.range + (translateY - item.range) * detail;
+            translateZ *= detail;
+            alpha = 255 - (int) ((255 - alpha) * detail);
+            if (detail == 0 && (item.band == ItemLayout.BAND_CROSS_TOP
+                    || item.band == ItemLayout.BAND_CROSS_BOTTOM)) {
+                // 与分界线相交的选项只按照所占比例较大的一侧绘制一次
+                final boolean selected = item.selectedFraction >= .5f;
+                if (!selected) {
+                    mTextPaint.setAlpha(alpha);
+                }
+                clipItem(canvas, mClipRectContent);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate,
+                        selected ? mSelectedTextPaint : mTextPaint);
+                canvas.restore();
+                return;
+            }
+        }
+
+        switch (item.band) {
+            // 绘制与下分界线相交的文字
+            case ItemLayout.BAND_CROSS_BOTTOM:
+                clipItem(canvas, mClipRectMiddle, refractX);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mSelectedTextPaint);
+                canvas.restore();
+
+                mTextPaint.setAlpha(alpha);
+                clipItem(canvas, mClipRectBottom);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制下分界线下方的文字
+            case ItemLayout.BAND_BOTTOM:
+                mTextPaint.setAlpha(alpha);
+                clipItem(canvas, mClipRectBottom);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制与上分界线相交的文字
+            case ItemLayout.BAND_CROSS_TOP:
+                clipItem(canvas, mClipRectMiddle, refractX);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mSelectedTextPaint);
+                canvas.restore();
+
+                mTextPaint.setAlpha(alpha);
+                clipItem(canvas, mClipRectTop);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制上分界线上方的文字
+            case ItemLayout.BAND_TOP:
+                mTextPaint.setAlpha(alpha);
+                clipItem(canvas, mClipRectTop);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制两条分界线之间的文字
+            default:
+                clipItem(canvas, mClipRectMiddle, refractX);
+                drawText(canvas, position, text, centerX, centerY, 0, translateY, translateZ, rotate, mSelectedTextPaint);
+                canvas.restore();
+                break;
         }
     }
 
     private void drawText(Canvas canvas,
+                          int position,
                           CharSequence text,
                           float centerX,
                           float centerY,
@@ -120,24 +236,83 @@ public class Wheel3DView extends WheelView {
                           float translateY,
                           float translateZ,
                           float rotateX,
-                          Paint paint) {
-        mCamera.save();
-        mCamera.translate(translateX, 0, translateZ);
-        mCamera.rotateX(rotateX);
-        mCamera.getMatrix(mMatrix);
-        mCamera.restore();
-
+                          TextPaint paint) {
         final float x = centerX;
         final float y = centerY + translateY;
 
-        // 设置绕x轴旋转的中心点位置
-        mMatrix.preTranslate(-x, -y);
-        mMatrix.postTranslate(x, y);
+        if (translateX != 0 || translateZ != 0 || rotateX != 0) {
+            mCamera.save();
+            mCamera.translate(translateX, 0, translateZ);
+            mCamera.rotateX(rotateX);
+            mCamera.getMatrix(mMatrix);
+            mCamera.restore();
+
+            // 设置绕x轴旋转的中心点位置
+            mMatrix.preTranslate(-x, -y);
+            mMatrix.postTranslate(x, y);
+        } else {
+            // 没有透视变换时不需要计算相机的矩阵
+            mMatrix.reset();
+        }
+        if (mItemTextScale != 1 && mItemRenderer == null) {
+            // 以选项的中心缩放自适应宽度的文字，自定义渲染器自行处理缩放比例
+            mMatrix.preScale(mItemTextScale, mItemTextScale, x, y);
+        }
+
+        final int baseline = mTextBaseline;
+
+        if (!mMatrix.isIdentity()) {
+            canvas.concat(mMatrix);
+        }
+        if (mItemRenderer != null) {
+            renderItem(canvas, x, y, paint);
+            return;
+        }
+        Bitmap bitmap = null;
+        if (mBitmapCache != null) {
+            // 快速滑行时只使用已经缓存的位图，不创建新的位图
+            bitmap = getItemBitmap(position, text, paint, mLevelOfDetail > 0);
+        }
+        if (bitmap != null) {
+            mBitmapPaint.setAlpha(paint.getAlpha());
+            canvas.drawBitmap(bitmap, x - bitmap.getWidth() / 2f, y - baseline + mFontMetrics.top, mBitmapPaint);
+        } else {
+            canvas.drawText(text, 0, text.length(), x, y - baseline, paint);
+        }
+    }
+
+    /**
+     * 获取选项文字的位图，缓存中不存在时绘制一张新的位图
+     *
+     * @param create 缓存中不存在时是否创建新的位图
+     */
+    private Bitmap getItemBitmap(int position, CharSequence text, Paint paint, boolean create) {
+        final int key = ItemBitmapCache.keyOf(position, paint == mSelectedTextPaint);
+        Bitmap bitmap = mBitmapCache.get(key);
+        if (mMetrics != null) {
+            if (bitmap != null) {
+                mMetrics.mCacheHitCount++;
+            } else {
+                mMetrics.mCacheMissCount++;
+            }
+        }
+        if (bitmap != null || !create) return bitmap;
+
+        final Paint.FontMetrics fontMetrics = mFontMetrics;
+        int width = (int) Math.ceil(paint.measureText(text, 0, text.length()));
+        int height = (int) Math.ceil(fontMetrics.bottom - fontMetrics.top);
+        if (width <= 0 || height <= 0) return null;
 
-        Paint.FontMetrics fontMetrics = paint.getFontMetrics();
-        int baseline = (int) ((fontMetrics.top + fontMetrics.bottom) / 2);
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        // 位图以不透明的颜色绘制，透明度在绘制位图时设置
+        final int alpha = paint.getAlpha();
+        paint.setAlpha(255);
+        mBitmapCanvas.setBitmap(bitmap);
+        mBitmapCanvas.drawText(text, 0, text.length(), width / 2f, -fontMetrics.top, paint);
+        mBitmapCanvas.setBitmap(null);
+        paint.setAlpha(alpha);
 
-        canvas.concat(mMatrix);
-        canvas.drawText(text, 0, text.length(), x, y - baseline, paint);
+        mBitmapCache.put(key, bitmap);
+        return bitmap;
     }
 }
@@ -0,0 +1,19 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 滚轮的数据源，滚轮只会按需获取当前可见的选项
+ *
+ * @author cncoderx
+ */
+public interface WheelAdapter {
+    /**
+     * @return 选项的总数
+     */
+    int getCount();
+
+    /**
+     * @param index 选项的位置，范围为[0, getCount())
+     * @return 该位置需要显示的文字
+     */
+    CharSequence getItem(int index);
+}
@@ -0,0 +1,28 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 数据源变化的观察者
+ *
+ * @author cncoderx
+ */
+abstract class WheelDataObserver {
+    /**
+     * 所有选项都可能发生了变化，选项数量也可能变化
+     */
+    abstract void onChanged();
+
+    /**
+     * 从start开始的count个选项的内容发生了变化，选项数量不变
+     */
+    abstract void onItemRangeChanged(int start, int count);
+
+    /**
+     * 在start位置插入了count个选项
+     */
+    abstract void onItemRangeInserted(int start, int count);
+
+    /**
+     * 删除了从start开始的count个选项
+     */
+    abstract void onItemRangeRemoved(int start, int count);
+}
@@ -0,0 +1,172 @@
+package com.cncoderx.wheelview;
+
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * 停靠在选项上的滑行动画。开始滑行时按照摩擦力计算自然停止的位置，
+ * 取整到最近的选项后，以一条连续的减速曲线滑行到该位置，结束后不需要再调整位置
+ *
+ * @author cncoderx
+ */
+class WheelFling {
+    // 与Scroller相同的物理系数：重力加速度（米/秒²）× 每米的英寸数 × 经验系数
+    private static final float PHYSICAL_COEF = 9.80665f * 39.37f * .84f;
+    // 计算曲线初始斜率时使用的时间步长
+    private static final float SLOPE_STEP = .001f;
+    static final int MIN_DURATION = 100;
+    static final int MAX_DURATION = 3000;
+
+    private final float mPpi;
+    private float mFriction;
+    // 减速度（像素/秒²）
+    private float mDeceleration;
+    private Interpolator mInterpolator;
+    // 曲线在起点的斜率，用于使滑行的初速度与手指离开时的速度一致
+    private float mInterpolatorSlope;
+
+    private int mStartOffset;
+    private int mDistance;
+    private long mStartTime;
+    private int mDuration;
+    private int mCurrOffset;
+    private boolean isFinished = true;
+
+    /**
+     * @param ppi 屏幕每英寸的像素数
+     * @param friction 摩擦系数
+     */
+    WheelFling(float ppi, float friction) {
+        mPpi = ppi;
+        setFriction(friction);
+        setInterpolator(null);
+    }
+
+    float getFriction() {
+        return mFriction;
+    }
+
+    void setFriction(float friction) {
+        if (friction <= 0) {
+            throw new IllegalArgumentException("friction must be positive");
+        }
+        mFriction = friction;
+        mDeceleration = PHYSICAL_COEF * mPpi * friction;
+    }
+
+    Interpolator getInterpolator() {
+        return mInterpolator;
+    }
+
+    /**
+     * @param interpolator 滑行的曲线，需要单调递增并且起点的斜率大于0，为null时使用匀减速曲线
+     */
+    void setInterpolator(Interpolator interpolator) {
+        mInterpolator = interpolator != null ? interpolator : new DecelerateInterpolator();
+        mInterpolatorSlope = mInterpolator.getInterpolation(SLOPE_STEP) / SLOPE_STEP;
+    }
+
+    /**
+     * 计算以指定速度滑行时自然停止的距离
+     *
+     * @param velocity 滑行速度（像素/秒）
+     */
+    float getNaturalDistance(float velocity) {
+        return Math.signum(velocity) * velocity * velocity / (2 * mDeceleration);
+    }
+
+    /**
+     * 计算滑行停靠的位置，自然停止的位置取整到最近的选项，并限制在边界内
+     *
+     * @param offset 当前的滚动距离
+     * @param velocity 滑行速度（像素/秒）
+     * @param itemHeight 选项的高度
+     * @param minOffset 最小的滚动距离
+     * @param maxOffset 最大的滚动距离
+     */
+    int getTargetOffset(int offset, float velocity, int itemHeight, int minOffset, int maxOffset) {
+        final float naturalOffset = offset + getNaturalDistance(velocity);
+        long target = (long) Math.round(naturalOffset / itemHeight) * itemHeight;
+        if (target < minOffset) {
+            target = minOffset;
+        } else if (target > maxOffset) {
+            target = maxOffset;
+        }
+        return (int) target;
+    }
+
+    /**
+     * 开始滑行
+     *
+     * @param offset 当前的滚动距离
+     * @param velocity 滑行速度（像素/秒）
+     * @param itemHeight 选项的高度
+     * @param minOffset 最小的滚动距离
+     * @param maxOffset 最大的滚动距离
+     * @param startTime 开始的时间（毫秒）
+     * @return 是否需要滑行
+     */
+    boolean start(int offset, float velocity, int itemHeight, int minOffset, int maxOffset, long startTime) {
+        final int distance = getTargetOffset(offset, velocity, itemHeight, minOffset, maxOffset) - offset;
+        if (distance == 0) {
+            isFinished = true;
+            return false;
+        }
+
+        int duration;
+        if (Math.signum(distance) == Math.signum(velocity)) {
+            // 曲线在起点的速度为 distance × slope / duration，与手指离开时的速度保持一致
+            duration = (int) (1000 * mInterpolatorSlope * Math.abs(distance) / Math.abs(velocity));
+        } else {
+            // 速度太小，取整后回到了相反的方向
+            duration = WheelScroller.JUSTIFY_DURATION;
+        }
+        mDuration = Math.max(MIN_DURATION, Math.min(duration, MAX_DURATION));
+        mStartOffset = offset;
+        mDistance = distance;
+        mStartTime = startTime;
+        mCurrOffset = offset;
+        isFinished = false;
+        return true;
+    }
+
+    /**
+     * 计算当前时间的滚动距离
+     *
+     * @param currentTime 当前的时间（毫秒）
+     * @return 滑行是否仍在进行，到达目标位置的一帧返回false
+     */
+    boolean computeOffset(long currentTime) {
+        if (isFinished) return false;
+
+        final long elapsed = currentTime - mStartTime;
+        if (elapsed >= mDuration) {
+            mCurrOffset = mStartOffset + mDistance;
+            isFinished = true;
+            return false;
+        }
+        final float input = (float) elapsed / mDuration;
+        mCurrOffset = mStartOffset + Math.round(mDistance * mInterpolator.getInterpolation(input));
+        return true;
+    }
+
+    int getCurrOffset() {
+        return mCurrOffset;
+    }
+
+    int getFinalOffset() {
+        return mStartOffset + mDistance;
+    }
+
+    int getDuration() {
+        return mDuration;
+    }
+
+    boolean isFinished() {
+        return isFinished;
+    }
+
+    void abort() {
+        isFinished = true;
+    }
+}
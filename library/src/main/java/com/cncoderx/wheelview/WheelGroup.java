@@ -0,0 +1,261 @@
+package com.cncoderx.wheelview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 管理多个联动的滚轮，例如年月日、省市区。
+ * 组内所有滚轮的动画都在同一个帧回调中推进，上游滚轮的选项变化后，下游滚轮的数据在同一帧内统一更新，
+ * 每个依赖关系每帧最多更新一次
+ *
+ * <pre>
+ * WheelGroup group = new WheelGroup();
+ * group.addDependency(wvDay, new WheelGroup.Updater() {
+ *     public void onUpdate(WheelView target) {
+ *         dayAdapter.setRange(1, getDaysOfMonth(wvYear.getCurrentValue(), wvMonth.getCurrentValue()));
+ *     }
+ * }, wvYear, wvMonth);
+ * </pre>
+ *
+ * @author cncoderx
+ */
+public class WheelGroup {
+    /**
+     * 上游滚轮的选项变化后，更新下游滚轮的数据
+     */
+    public interface Updater {
+        /**
+         * @param target 需要更新的滚轮
+         */
+        void onUpdate(WheelView target);
+    }
+
+    private final List<WheelView> mWheels = new ArrayList<>();
+    private final List<Dependency> mDependencies = new ArrayList<>();
+
+    FrameScheduler mFrameScheduler = FrameScheduler.getInstance();
+    private final GroupFrameScheduler mGroupScheduler = new GroupFrameScheduler();
+    private boolean isFramePosted;
+    private boolean isInFrame;
+
+    private final FrameScheduler.FrameCallback mFrameCallback = new FrameScheduler.FrameCallback() {
+        @Override
+        void doFrame(long frameTimeNanos) {
+            isFramePosted = false;
+            isInFrame = true;
+            // 先推进所有滚轮的动画，再统一更新下游滚轮的数据，所有的重绘都在同一帧内完成
+            mGroupScheduler.dispatchFrame(frameTimeNanos);
+            final boolean pending = updateDependencies();
+            isInFrame = false;
+            if (pending) {
+                postFrame();
+            }
+        }
+    };
+
+    /**
+     * 将滚轮加入组内，加入后滚轮的动画由组统一调度
+     */
+    public void addWheel(WheelView wheel) {
+        if (mWheels.contains(wheel)) return;
+
+        final WheelScroller scroller = wheel.mScroller;
+        scroller.stopScroll();
+        scroller.mFrameScheduler = mGroupScheduler;
+        scroller.mWheelGroup = this;
+        mWheels.add(wheel);
+    }
+
+    /**
+     * 将滚轮移出组，同时删除与该滚轮相关的依赖关系
+     */
+    public void removeWheel(WheelView wheel) {
+        if (!mWheels.remove(wheel)) return;
+
+        final WheelScroller scroller = wheel.mScroller;
+        scroller.stopScroll();
+        scroller.mFrameScheduler = FrameScheduler.getInstance();
+        scroller.mWheelGroup = null;
+        for (int i = mDependencies.size() - 1; i >= 0; i--) {
+            if (mDependencies.get(i).contains(wheel)) {
+                mDependencies.remove(i);
+            }
+        }
+    }
+
+    /**
+     * 声明target依赖于sources，任意一个source的选项变化后，在下一帧调用updater更新target。
+     * 依赖关系可以按任意顺序声明，更新时总是先更新上游的滚轮，但不能形成循环依赖
+     *
+     * @param target 需要更新的滚轮
+     * @param updater 更新数据的回调
+     * @param sources 上游滚轮
+     */
+    public void addDependency(WheelView target, Updater updater, WheelView... sources) {
+        if (sources == null || sources.length == 0) {
+            throw new IllegalArgumentException("sources must not be empty");
+        }
+        addWheel(target);
+        for (WheelView source : sources) {
+            if (source == target) {
+                throw new IllegalArgumentException("a wheel can not depend on itself");
+            }
+            addWheel(source);
+        }
+        final Dependency dependency = new Dependency(target, updater, sources.clone());
+        mDependencies.add(dependency);
+        if (!sortDependencies()) {
+            mDependencies.remove(dependency);
+            throw new IllegalArgumentException("circular dependency");
+        }
+        // 首次声明时同样需要根据上游滚轮初始化数据
+        dependency.isDirty = true;
+        postFrame();
+    }
+
+    /**
+     * 立即更新所有需要更新的滚轮，不等待下一帧
+     */
+    public void updateNow() {
+        if (isInFrame) return;
+        if (updateDependencies()) {
+            postFrame();
+        }
+    }
+
+    /**
+     * 组内滚轮的选项变化时由{@link WheelScroller}调用
+     */
+    void onWheelChanged(WheelView wheel) {
+        boolean dirty = false;
+        for (int i = 0, size = mDependencies.size(); i < size; i++) {
+            final Dependency dependency = mDependencies.get(i);
+            if (dependency.dependsOn(wheel)) {
+                dependency.isDirty = true;
+                dirty = true;
+            }
+        }
+        // 帧回调中的变化会在本帧的更新中处理
+        if (dirty && !isInFrame) {
+            postFrame();
+        }
+    }
+
+    private void postFrame() {
+        if (!isFramePosted) {
+            isFramePosted = true;
+            mFrameScheduler.postFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * 将依赖关系按照从上游到下游的顺序排列
+     *
+     * @return 是否排序成功，存在循环依赖时返回false
+     */
+    private boolean sortDependencies() {
+        final int size = mDependencies.size();
+        final List<Dependency> sorted = new ArrayList<>(size);
+        final boolean[] sortedFlags = new boolean[size];
+        while (sorted.size() < size) {
+            boolean progress = false;
+            for (int i = 0; i < size; i++) {
+                if (sortedFlags[i]) continue;
+                // 所有上游的依赖关系都已经排好后，才能排列当前的依赖关系
+                final Dependency dependency = mDependencies.get(i);
+                boolean ready = true;
+                for (int j = 0; j < size && ready; j++) {
+                    ready = sortedFlags[j] || j == i || !dependency.dependsOn(mDependencies.get(j).target);
+                }
+                if (ready) {
+                    sorted.add(dependency);
+                    sortedFlags[i] = true;
+                    progress = true;
+                }
+            }
+            if (!progress) return false;
+        }
+        mDependencies.clear();
+        mDependencies.addAll(sorted);
+        return true;
+    }
+
+    /**
+     * 按照从上游到下游的顺序更新依赖关系，下游滚轮的变化会标记更下游的依赖关系，在同一次循环中继续处理
+     *
+     * @return 是否还有推迟到下一帧的依赖关系
+     */
+    private boolean updateDependencies() {
+        final int size = mDependencies.size();
+        for (int i = 0; i < size; i++) {
+            final Dependency dependency = mDependencies.get(i);
+            if (dependency.isDirty) {
+                dependency.isDirty = false;
+                dependency.updater.onUpdate(dependency.target);
+                // 即使选中的位置没有变化，选项的内容也可能已经改变，更下游的滚轮同样需要更新
+                onWheelChanged(dependency.target);
+            }
+        }
+        // 回调中修改了上游滚轮时，剩余的依赖关系推迟到下一帧，保证每个依赖关系每帧最多更新一次
+        for (int i = 0; i < size; i++) {
+            if (mDependencies.get(i).isDirty) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 收集组内滚轮的帧回调，在组的帧回调中统一执行
+     */
+    private class GroupFrameScheduler extends FrameScheduler {
+        private ArrayList<FrameCallback> mCallbacks = new ArrayList<>();
+        private ArrayList<FrameCallback> mRunningCallbacks = new ArrayList<>();
+
+        @Override
+        void postFrameCallback(FrameCallback callback) {
+            if (!mCallbacks.contains(callback)) {
+                mCallbacks.add(callback);
+            }
+            postFrame();
+        }
+
+        @Override
+        void removeFrameCallback(FrameCallback callback) {
+            mCallbacks.remove(callback);
+        }
+
+        void dispatchFrame(long frameTimeNanos) {
+            // 交换两个列表，回调中重新提交的帧回调会在下一帧执行
+            final ArrayList<FrameCallback> callbacks = mCallbacks;
+            mCallbacks = mRunningCallbacks;
+            mRunningCallbacks = callbacks;
+            for (int i = 0, size = callbacks.size(); i < size; i++) {
+                callbacks.get(i).doFrame(frameTimeNanos);
+            }
+            callbacks.clear();
+        }
+    }
+
+    private static class Dependency {
+        final WheelView target;
+        final Updater updater;
+        final WheelView[] sources;
+        boolean isDirty;
+
+        Dependency(WheelView target, Updater updater, WheelView[] sources) {
+            this.target = target;
+            this.updater = updater;
+            this.sources = sources;
+        }
+
+        boolean dependsOn(WheelView wheel) {
+            for (WheelView source : sources) {
+                if (source == wheel) return true;
+            }
+            return false;
+        }
+
+        boolean contains(WheelView wheel) {
+            return target == wheel || dependsOn(wheel);
+        }
+    }
+}
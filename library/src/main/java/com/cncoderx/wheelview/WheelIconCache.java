@@ -0,0 +1,276 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Bitmap;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 选项图标的缓存，可以在多个滚轮之间共享。图标在后台线程中解码为指定的尺寸，
+ * 按字节数限制容量，超出时淘汰最久未使用的图标；图标解码完成后请求该图标的滚轮重新绘制。
+ * 容量需要能够容纳所有可见的图标，否则可见的图标会被反复解码。
+ * 解码失败的图标同样保留在缓存中，直到被淘汰或者调用{@link #clear()}之前不会重新解码。
+ * 除了{@link IconLoader#loadIcon(String, int)}之外，所有方法都需要在主线程中调用
+ *
+ * @author cncoderx
+ */
+public class WheelIconCache {
+    /**
+     * 图标的数据来源
+     */
+    public interface IconLoader {
+        /**
+         * 解码一个图标，在后台线程中调用
+         *
+         * @param key 图标的标识
+         * @param size 目标尺寸（像素），返回的位图超出该尺寸时会被缩小
+         * @return 解码的位图，失败时返回null；抛出RuntimeException或者内存不足时同样视为失败
+         */
+        Bitmap loadIcon(String key, int size);
+    }
+
+    private static final String TAG = "WheelIconCache";
+
+    private static WheelIconCache sDefault;
+
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    // 相同标识不同尺寸的图标以链表保存在同一个键值下
+    private final HashMap<String, Entry> mEntries = new HashMap<>();
+    // 链表头为最近使用的图标，链表尾为最久未使用的图标，正在解码的图标不在链表中，解码失败的图标在链表中但不占用容量
+    private Entry mHead;
+    private Entry mTail;
+    private int mMaxSize;
+    private int mSize;
+
+    /**
+     * @return 所有滚轮默认共享的缓存，容量为最大可用内存的1/16
+     */
+    public static WheelIconCache getDefault() {
+        if (sDefault == null) {
+            sDefault = new WheelIconCache((int) Math.min(Runtime.getRuntime().maxMemory() / 16, Integer.MAX_VALUE));
+        }
+        return sDefault;
+    }
+
+    /**
+     * 使用{@link AsyncTask#THREAD_POOL_EXECUTOR}解码图标
+     *
+     * @param maxSize 缓存的容量（字节）
+     */
+    public WheelIconCache(int maxSize) {
+        this(maxSize, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param maxSize 缓存的容量（字节）
+     * @param executor 解码图标的线程池
+     */
+    public WheelIconCache(int maxSize, Executor executor) {
+        mMaxSize = maxSize;
+        mExecutor = executor;
+    }
+
+    /**
+     * 获取图标，缓存中不存在时在后台线程中解码，解码完成后重新绘制滚轮。
+     * 缓存命中时不会创建任何对象，可以在绘制时调用
+     *
+     * @param key 图标的标识
+     * @param size 目标尺寸（像素）
+     * @param loader 图标的数据来源
+     * @param view 需要显示图标的滚轮，为null时解码完成后不重新绘制
+     * @return 缓存的图标，尚未解码或者解码失败时返回null
+     */
+    public Bitmap get(String key, int size, IconLoader loader, WheelView view) {
+        final Entry first = mEntries.get(key);
+        Entry entry = first;
+        while (entry != null && entry.iconSize != size) {
+            entry = entry.sibling;
+        }
+        if (entry == null) {
+            entry = new Entry(key, size);
+            entry.sibling = first;
+            mEntries.put(key, entry);
+            load(entry, loader);
+        }
+        if (entry.bitmap == null && !entry.isFailed) {
+            // 正在解码，记录需要重新绘制的滚轮
+            if (view != null && !entry.waitingViews.contains(view)) {
+                entry.waitingViews.add(view);
+            }
+            return null;
+        }
+        if (entry != mHead) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+        return entry.bitmap;
+    }
+
+    /**
+     * 移除所有已经解码的图标，之前解码失败的图标下次获取时重新解码，正在解码的图标完成后仍然会加入缓存
+     */
+    public void clear() {
+        while (mTail != null) {
+            evict(mTail);
+        }
+    }
+
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        mMaxSize = maxSize;
+        trimToSize();
+    }
+
+    /**
+     * @return 已经解码的图标占用的字节数
+     */
+    public int size() {
+        return mSize;
+    }
+
+    private void load(final Entry entry, final IconLoader loader) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap = null;
+                try {
+                    bitmap = scaleToFit(loader.loadIcon(entry.key, entry.iconSize), entry.iconSize);
+                } catch (RuntimeException | OutOfMemoryError e) {
+                    Log.w(TAG, "Failed to load icon " + entry.key, e);
+                } finally {
+                    final Bitmap result = bitmap;
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onIconLoaded(entry, result);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * 等比例缩小超出目标尺寸的位图，缓存中只保存目标尺寸的图标
+     */
+    static Bitmap scaleToFit(Bitmap bitmap, int size) {
+        if (bitmap == null) return null;
+
+        final int width = bitmap.getWidth();
+        final int height = bitmap.getHeight();
+        if (width <= size && height <= size) return bitmap;
+
+        // 数据来源可能仍然持有原始的位图，这里不回收
+        final float scale = (float) size / Math.max(width, height);
+        return Bitmap.createScaledBitmap(bitmap,
+                Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale)), true);
+    }
+
+    private void onIconLoaded(Entry entry, Bitmap bitmap) {
+        final ArrayList<WheelView> views = entry.waitingViews;
+        if (bitmap == null) {
+            // 解码失败，保留该图标避免绘制时反复解码，滚轮继续显示占位内容，不需要重新绘制
+            entry.isFailed = true;
+            linkFirst(entry);
+            views.clear();
+            return;
+        }
+        entry.bitmap = bitmap;
+        entry.bytes = bitmap.getRowBytes() * bitmap.getHeight();
+        mSize += entry.bytes;
+        linkFirst(entry);
+        trimToSize();
+        for (int i = 0, n = views.size(); i < n; i++) {
+            views.get(i).invalidate();
+        }
+        views.clear();
+    }
+
+    private void trimToSize() {
+        // 至少保留最近使用的一个图标，避免单个图标超出容量时反复解码
+        while (mSize > mMaxSize && mTail != null && mTail != mHead) {
+            evict(mTail);
+        }
+    }
+
+    private void evict(Entry entry) {
+        unlink(entry);
+        mSize -= entry.bytes;
+        removeEntry(entry);
+    }
+
+    /**
+     * 从键值对应的链表中移除
+     */
+    private void removeEntry(Entry entry) {
+        final Entry first = mEntries.get(entry.key);
+        if (first == entry) {
+            if (entry.sibling != null) {
+                mEntries.put(entry.key, entry.sibling);
+            } else {
+                mEntries.remove(entry.key);
+            }
+            return;
+        }
+        Entry prev = first;
+        while (prev != null && prev.sibling != entry) {
+            prev = prev.sibling;
+        }
+        if (prev != null) {
+            prev.sibling = entry.sibling;
+        }
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.prev = null;
+        entry.next = mHead;
+        if (mHead != null) {
+            mHead.prev = entry;
+        }
+        mHead = entry;
+        if (mTail == null) {
+            mTail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            mHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            mTail = entry.prev;
+        }
+        entry.prev = entry.next = null;
+    }
+
+    static final class Entry {
+        final String key;
+        final int iconSize;
+        final ArrayList<WheelView> waitingViews = new ArrayList<>(1);
+        Bitmap bitmap;
+        int bytes;
+        boolean isFailed;
+        // 相同标识不同尺寸的图标
+        Entry sibling;
+        Entry prev;
+        Entry next;
+
+        Entry(String key, int iconSize) {
+            this.key = key;
+            this.iconSize = iconSize;
+        }
+    }
+}
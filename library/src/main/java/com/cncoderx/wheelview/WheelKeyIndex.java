@@ -0,0 +1,275 @@
+package com.cncoderx.wheelview;
+
+import java.text.Normalizer;
+
+/**
+ * 按照规范化后的文字排序的选项索引，用于前缀查找。
+ * 查找时使用二分法，复杂度为O(log n)；选项变化时只合并变化的部分，不需要重新排序所有选项。
+ * 值为null的选项表示尚未准备好，不加入索引。
+ * 该类不依赖Android，也不是线程安全的
+ *
+ * @author cncoderx
+ */
+final class WheelKeyIndex {
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final int[] EMPTY_INDICES = new int[0];
+    // 新选项不超过该数量时逐个插入，否则排序后整体合并
+    private static final int MAX_INSERT_COUNT = 16;
+
+    // 按照(键, 选项位置)排序
+    private String[] mKeys = EMPTY_KEYS;
+    private int[] mIndices = EMPTY_INDICES;
+    private int mSize;
+
+    /**
+     * 以所有选项重新建立索引
+     */
+    void build(CharSequence[] entries) {
+        mSize = 0;
+        merge(0, entries);
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @param prefix 前缀，不区分大小写和重音符号
+     * @return 键以该前缀开头的选项中，键最小的选项位置，没有找到时返回-1
+     */
+    int find(CharSequence prefix) {
+        final String key = normalize(prefix);
+        int low = 0;
+        int high = mSize;
+        // 查找第一个不小于前缀的键
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (mKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < mSize && mKeys[low].startsWith(key)) {
+            return mIndices[low];
+        }
+        return -1;
+    }
+
+    /**
+     * 在start位置插入选项，原来位于start及之后的选项向后移动
+     */
+    void insert(int start, CharSequence[] entries) {
+        shift(start, entries.length);
+        merge(start, entries);
+    }
+
+    /**
+     * 删除从start开始的count个选项，之后的选项向前移动
+     */
+    void remove(int start, int count) {
+        removeRange(start, count, true);
+    }
+
+    /**
+     * 替换从start开始的选项，选项数量不变
+     */
+    void change(int start, CharSequence[] entries) {
+        removeRange(start, entries.length, false);
+        merge(start, entries);
+    }
+
+    /**
+     * 规范化文字：分解重音符号后删除，并转换为小写
+     */
+    static String normalize(CharSequence text) {
+        if (text == null) return "";
+
+        final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        final int length = decomposed.length();
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            final char c = decomposed.charAt(i);
+            final int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                continue;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private void shift(int from, int delta) {
+        final int[] indices = mIndices;
+        for (int i = 0; i < mSize; i++) {
+            if (indices[i] >= from) {
+                indices[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * @param shift 是否将之后的选项向前移动
+     */
+    private void removeRange(int start, int count, boolean shift) {
+        final int end = start + count;
+        final String[] keys = mKeys;
+        final int[] indices = mIndices;
+        // 只移动被删除的选项之间的连续片段
+        int size = 0;
+        int runStart = 0;
+        for (int i = 0; i < mSize; i++) {
+            final int index = indices[i];
+            if (index >= end) {
+                if (shift) {
+                    indices[i] = index - count;
+                }
+            } else if (index >= start) {
+                if (runStart < i) {
+                    System.arraycopy(keys, runStart, keys, size, i - runStart);
+                    System.arraycopy(indices, runStart, indices, size, i - runStart);
+                    size += i - runStart;
+                }
+                runStart = i + 1;
+            }
+        }
+        if (runStart == 0) return;
+        if (runStart < mSize) {
+            System.arraycopy(keys, runStart, keys, size, mSize - runStart);
+            System.arraycopy(indices, runStart, indices, size, mSize - runStart);
+            size += mSize - runStart;
+        }
+        for (int i = size; i < mSize; i++) {
+            keys[i] = null;
+        }
+        mSize = size;
+    }
+
+    /**
+     * 将位于start开始的新选项排序后与现有的索引合并
+     */
+    private void merge(int start, CharSequence[] entries) {
+        int count = 0;
+        for (CharSequence entry : entries) {
+            if (entry != null) count++;
+        }
+        if (count == 0) return;
+        if (count <= MAX_INSERT_COUNT && mSize > 0) {
+            ensureCapacity(mSize + count);
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i] != null) {
+                    insertKey(normalize(entries[i]), start + i);
+                }
+            }
+            return;
+        }
+
+        final String[] keys = new String[count];
+        final int[] indices = new int[count];
+        for (int i = 0, j = 0; i < entries.length; i++) {
+            if (entries[i] != null) {
+                keys[j] = normalize(entries[i]);
+                indices[j++] = start + i;
+            }
+        }
+        sort(keys, indices, new String[count], new int[count], 0, count);
+
+        final int size = mSize + count;
+        final String[] mergedKeys = new String[size];
+        final int[] mergedIndices = new int[size];
+        int i = 0, j = 0, k = 0;
+        while (i < mSize && j < count) {
+            if (compare(mKeys[i], mIndices[i], keys[j], indices[j]) <= 0) {
+                mergedKeys[k] = mKeys[i];
+                mergedIndices[k++] = mIndices[i++];
+            } else {
+                mergedKeys[k] = keys[j];
+                mergedIndices[k++] = indices[j++];
+            }
+        }
+        while (i < mSize) {
+            mergedKeys[k] = mKeys[i];
+            mergedIndices[k++] = mIndices[i++];
+        }
+        while (j < count) {
+            mergedKeys[k] = keys[j];
+            mergedIndices[k++] = indices[j++];
+        }
+        mKeys = mergedKeys;
+        mIndices = mergedIndices;
+        mSize = size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (mKeys.length >= capacity) return;
+
+        final int newCapacity = Math.max(capacity, mKeys.length + (mKeys.length >> 1));
+        final String[] keys = new String[newCapacity];
+        final int[] indices = new int[newCapacity];
+        System.arraycopy(mKeys, 0, keys, 0, mSize);
+        System.arraycopy(mIndices, 0, indices, 0, mSize);
+        mKeys = keys;
+        mIndices = indices;
+    }
+
+    /**
+     * 以二分法找到插入位置后插入，调用前需要保证容量足够
+     */
+    private void insertKey(String key, int index) {
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(mKeys[mid], mIndices[mid], key, index) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        System.arraycopy(mKeys, low, mKeys, low + 1, mSize - low);
+        System.arraycopy(mIndices, low, mIndices, low + 1, mSize - low);
+        mKeys[low] = key;
+        mIndices[low] = index;
+        mSize++;
+    }
+
+    /**
+     * 对[from, to)范围内的键和选项位置进行归并排序
+     */
+    private static void sort(String[] keys, int[] indices, String[] tmpKeys, int[] tmpIndices, int from, int to) {
+        if (to - from < 2) return;
+
+        final int mid = (from + to) >>> 1;
+        sort(keys, indices, tmpKeys, tmpIndices, from, mid);
+        sort(keys, indices, tmpKeys, tmpIndices, mid, to);
+        if (compare(keys[mid - 1], indices[mid - 1], keys[mid], indices[mid]) <= 0) return;
+
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            if (compare(keys[i], indices[i], keys[j], indices[j]) <= 0) {
+                tmpKeys[k] = keys[i];
+                tmpIndices[k++] = indices[i++];
+            } else {
+                tmpKeys[k] = keys[j];
+                tmpIndices[k++] = indices[j++];
+            }
+        }
+        while (i < mid) {
+            tmpKeys[k] = keys[i];
+            tmpIndices[k++] = indices[i++];
+        }
+        while (j < to) {
+            tmpKeys[k] = keys[j];
+            tmpIndices[k++] = indices[j++];
+        }
+        System.arraycopy(tmpKeys, from, keys, from, to - from);
+        System.arraycopy(tmpIndices, from, indices, from, to - from);
+    }
+
+    private static int compare(String key1, int index1, String key2, int index2) {
+        final int result = key1.compareTo(key2);
+        if (result != 0) return result;
+        return index1 < index2 ? -1 : (index1 == index2 ? 0 : 1);
+    }
+}
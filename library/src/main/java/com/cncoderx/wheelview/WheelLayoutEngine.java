@@ -0,0 +1,127 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 根据滚动距离一次性计算出一帧中所有可见选项的布局，普通滚轮和立体滚轮共用。
+ * 不依赖Android，可以直接在JVM上测试
+ *
+ * @author cncoderx
+ */
+class WheelLayoutEngine {
+    private int mItemHeight;
+    private int mItemCount;
+    private int mItemSize;
+    private boolean mCyclic;
+    private WheelProjection mProjection;
+
+    private ItemLayout[] mItems = new ItemLayout[0];
+    private int mVisibleCount;
+
+    /**
+     * @param itemHeight 选项的高度
+     * @param itemCount 可见选项的数量
+     * @param itemSize 数据源中选项的数量
+     * @param cyclic 是否循环滚动
+     */
+    void configure(int itemHeight, int itemCount, int itemSize, boolean cyclic) {
+        mItemHeight = itemHeight;
+        mItemCount = itemCount;
+        mItemSize = itemSize;
+        mCyclic = cyclic;
+        // 滚动时最多比可见数量多绘制两个选项
+        final int capacity = itemCount + 3;
+        if (mItems.length < capacity) {
+            ItemLayout[] items = new ItemLayout[capacity];
+            System.arraycopy(mItems, 0, items, 0, mItems.length);
+            for (int i = mItems.length; i < capacity; i++) {
+                items[i] = new ItemLayout();
+            }
+            mItems = items;
+        }
+    }
+
+    /**
+     * @param projection 立体滚轮的投影表，为null时按普通滚轮计算
+     */
+    void setProjection(WheelProjection projection) {
+        mProjection = projection;
+    }
+
+    /**
+     * 设置可见区域，立体滚轮的半径为可见区域高度的一半
+     *
+     * @param top 可见区域的上边界
+     * @param bottom 可见区域的下边界
+     */
+    void setViewport(int top, int bottom) {
+        if (mProjection != null) {
+            mProjection.setRadius((bottom - top) / 2);
+        }
+    }
+
+    /**
+     * 计算可见选项的布局，结果通过{@link #getVisibleCount()}和{@link #getItem(int)}获取
+     *
+     * @param scrollOffset 滚动的距离
+     */
+    void layout(int scrollOffset) {
+        mVisibleCount = 0;
+        if (mItemSize == 0 || mItemHeight == 0) return;
+
+        final int itemHeight = mItemHeight;
+        final int itemIndex = WheelMath.itemIndex(scrollOffset, itemHeight);
+        final int itemOffset = WheelMath.itemOffset(scrollOffset, itemHeight);
+        final int minIdx = WheelMath.minVisibleIndex(itemIndex, itemOffset, mItemCount);
+        final int maxIdx = WheelMath.maxVisibleIndex(itemIndex, itemOffset, mItemCount);
+        final WheelProjection projection = mProjection;
+
+        for (int i = minIdx; i < maxIdx; i++) {
+            final int position = WheelMath.itemPosition(i, mItemSize, mCyclic);
+            if (position < 0) continue;
+            // 和中间选项的距离
+            final int range = (i - itemIndex) * itemHeight - itemOffset;
+            // 当滑动的角度和y轴垂直时（此时文字已经显示为一条线），不绘制文字
+            if (projection != null && !projection.isVisible(range)) continue;
+
+            final ItemLayout item = mItems[mVisibleCount++];
+            item.index = i;
+            item.position = position;
+            item.range = range;
+            if (range <= -itemHeight) {
+                item.band = ItemLayout.BAND_TOP;
+            } else if (range < 0) {
+                item.band = ItemLayout.BAND_CROSS_TOP;
+            } else if (range == 0) {
+                item.band = ItemLayout.BAND_MIDDLE;
+            } else if (range < itemHeight) {
+                item.band = ItemLayout.BAND_CROSS_BOTTOM;
+            } else {
+                item.band = ItemLayout.BAND_BOTTOM;
+            }
+            final int distance = range < 0 ? -range : range;
+            item.selectedFraction = distance >= itemHeight ? 0 : 1 - (float) distance / itemHeight;
+
+            if (projection != null) {
+                item.translateY = projection.getTranslateY(range);
+                item.translateZ = projection.getTranslateZ(range);
+                item.rotate = projection.getRotate(range);
+                item.alpha = projection.getAlpha(range);
+            } else {
+                item.translateY = range;
+                item.translateZ = 0;
+                item.rotate = 0;
+                item.alpha = 255;
+            }
+        }
+    }
+
+    /**
+     * @return 最近一次布局中可见选项的数量
+     */
+    int getVisibleCount() {
+        return mVisibleCount;
+    }
+
+    ItemLayout getItem(int i) {
+        return mItems[i];
+    }
+}
@@ -0,0 +1,90 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 滚轮的位置计算，不依赖Android，可以直接在JVM上测试
+ *
+ * @author cncoderx
+ */
+final class WheelMath {
+    private WheelMath() {
+    }
+
+    /**
+     * @param scrollOffset 滚动的距离
+     * @param itemHeight 选项的高度
+     * @param itemSize 选项的数量
+     * @return 离中间位置最近的选项在数据源中的位置，没有选项时返回-1
+     */
+    static int currentIndex(int scrollOffset, int itemHeight, int itemSize) {
+        if (itemSize == 0) return -1;
+
+        int currentIndex = nearestIndex(scrollOffset, itemHeight) % itemSize;
+        if (currentIndex < 0) {
+            currentIndex += itemSize;
+        }
+        return currentIndex;
+    }
+
+    /**
+     * @return 离中间位置最近的选项序号（四舍五入），循环滚动时可能超出数据源的范围
+     */
+    static int nearestIndex(int scrollOffset, int itemHeight) {
+        if (itemHeight == 0) return 0;
+        if (scrollOffset < 0) {
+            return (scrollOffset - itemHeight / 2) / itemHeight;
+        } else {
+            return (scrollOffset + itemHeight / 2) / itemHeight;
+        }
+    }
+
+    /**
+     * @return 滚动的距离对应的选项序号（向0取整）
+     */
+    static int itemIndex(int scrollOffset, int itemHeight) {
+        return itemHeight == 0 ? 0 : scrollOffset / itemHeight;
+    }
+
+    /**
+     * @return 滚动的距离相对于{@link #itemIndex(int, int)}的偏移量
+     */
+    static int itemOffset(int scrollOffset, int itemHeight) {
+        return itemHeight == 0 ? 0 : scrollOffset % itemHeight;
+    }
+
+    /**
+     * @param index 滚轮上的位置，循环滚动时可能超出数据源的范围
+     * @param itemSize 选项的数量
+     * @param cyclic 是否循环滚动
+     * @return 对应数据源中的位置，没有对应的选项时返回-1
+     */
+    static int itemPosition(int index, int itemSize, boolean cyclic) {
+        if (itemSize == 0) return -1;
+        if (cyclic) {
+            int i = index % itemSize;
+            if (i < 0) {
+                i += itemSize;
+            }
+            return i;
+        }
+        return index >= 0 && index < itemSize ? index : -1;
+    }
+
+    /**
+     * @param itemIndex 中间选项的序号
+     * @param itemOffset 中间选项的偏移量
+     * @param itemCount 可见选项的数量
+     * @return 需要绘制的第一个选项的序号
+     */
+    static int minVisibleIndex(int itemIndex, int itemOffset, int itemCount) {
+        final int hf = (itemCount + 1) / 2;
+        return itemOffset < 0 ? itemIndex - hf - 1 : itemIndex - hf;
+    }
+
+    /**
+     * @return 需要绘制的最后一个选项的下一个序号
+     */
+    static int maxVisibleIndex(int itemIndex, int itemOffset, int itemCount) {
+        final int hf = (itemCount + 1) / 2;
+        return itemOffset > 0 ? itemIndex + hf + 1 : itemIndex + hf;
+    }
+}
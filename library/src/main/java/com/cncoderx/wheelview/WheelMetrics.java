@@ -0,0 +1,175 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 滚轮的绘制统计信息，通过{@link WheelView#setMetricsEnabled(boolean)}开启。
+ * 单帧的数据在每次绘制开始时清零，累计的数据在调用{@link #reset()}时清零
+ *
+ * @author cncoderx
+ */
+public class WheelMetrics {
+    // 默认的帧时间预算（纳秒）
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
+    // 最近一帧的数据
+    long mDrawTimeNanos;
+    int mItemCount;
+    int mSaveCount;
+    int mClipCount;
+
+    // 累计的数据
+    int mFrameCount;
+    long mTotalDrawTimeNanos;
+    long mMaxDrawTimeNanos;
+    int mCacheHitCount;
+    int mCacheMissCount;
+    int mJankFrameCount;
+    int mDroppedFrameCount;
+
+    // 上一个滚动动画帧的时间，没有进行动画时为0
+    private long mLastScrollFrameNanos;
+
+    void beginFrame() {
+        mItemCount = 0;
+        mSaveCount = 0;
+        mClipCount = 0;
+    }
+
+    void endFrame(long drawTimeNanos) {
+        mDrawTimeNanos = drawTimeNanos;
+        mFrameCount++;
+        mTotalDrawTimeNanos += drawTimeNanos;
+        if (drawTimeNanos > mMaxDrawTimeNanos) {
+            mMaxDrawTimeNanos = drawTimeNanos;
+        }
+    }
+
+    /**
+     * 滑行或调整位置的动画每前进一帧时调用。垂直同步的间隔存在抖动，
+     * 两帧的间隔超出预算的1.5倍、即至少错过一次垂直同步时才记为一次卡顿，并按间隔估算丢失的帧数
+     */
+    void onScrollFrame(long frameTimeNanos) {
+        if (mLastScrollFrameNanos != 0 && mFrameBudgetNanos > 0) {
+            final long interval = frameTimeNanos - mLastScrollFrameNanos;
+            if (interval * 2 > mFrameBudgetNanos * 3) {
+                mJankFrameCount++;
+                // 四舍五入到最接近的帧数，减去正常显示的一帧
+                mDroppedFrameCount += (int) ((interval + mFrameBudgetNanos / 2) / mFrameBudgetNanos) - 1;
+            }
+        }
+        mLastScrollFrameNanos = frameTimeNanos;
+    }
+
+    void onScrollFinished() {
+        mLastScrollFrameNanos = 0;
+    }
+
+    /**
+     * @return 最近一帧onDraw的耗时（纳秒）
+     */
+    public long getDrawTimeNanos() {
+        return mDrawTimeNanos;
+    }
+
+    /**
+     * @return 最近一帧绘制的选项数量
+     */
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    /**
+     * @return 最近一帧调用Canvas.save()的次数
+     */
+    public int getSaveCount() {
+        return mSaveCount;
+    }
+
+    /**
+     * @return 最近一帧调用Canvas.clipRect()的次数
+     */
+    public int getClipCount() {
+        return mClipCount;
+    }
+
+    /**
+     * @return 累计绘制的帧数
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return 平均每帧onDraw的耗时（纳秒）
+     */
+    public long getAverageDrawTimeNanos() {
+        return mFrameCount == 0 ? 0 : mTotalDrawTimeNanos / mFrameCount;
+    }
+
+    /**
+     * @return 单帧onDraw的最大耗时（纳秒）
+     */
+    public long getMaxDrawTimeNanos() {
+        return mMaxDrawTimeNanos;
+    }
+
+    public int getCacheHitCount() {
+        return mCacheHitCount;
+    }
+
+    public int getCacheMissCount() {
+        return mCacheMissCount;
+    }
+
+    /**
+     * @return 缓存的命中率，没有使用缓存时返回0
+     */
+    public float getCacheHitRate() {
+        final int total = mCacheHitCount + mCacheMissCount;
+        return total == 0 ? 0 : (float) mCacheHitCount / total;
+    }
+
+    /**
+     * @return 滑行或调整位置的动画中，两帧间隔超出帧时间预算1.5倍的次数
+     */
+    public int getJankFrameCount() {
+        return mJankFrameCount;
+    }
+
+    /**
+     * @return 滑行或调整位置的动画中，按两帧间隔估算的丢失帧数
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    public long getFrameBudgetNanos() {
+        return mFrameBudgetNanos;
+    }
+
+    /**
+     * @param frameBudgetNanos 帧时间预算（纳秒），高刷新率的屏幕需要相应减小
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        mFrameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * 清零所有的统计数据
+     */
+    public void reset() {
+        mDrawTimeNanos = 0;
+        mItemCount = 0;
+        mSaveCount = 0;
+        mClipCount = 0;
+        mFrameCount = 0;
+        mTotalDrawTimeNanos = 0;
+        mMaxDrawTimeNanos = 0;
+        mCacheHitCount = 0;
+        mCacheMissCount = 0;
+        mJankFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mLastScrollFrameNanos = 0;
+    }
+}
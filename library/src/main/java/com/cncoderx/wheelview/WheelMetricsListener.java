@@ -0,0 +1,11 @@
+package com.cncoderx.wheelview;
+
+/**
+ * @author cncoderx
+ */
+public interface WheelMetricsListener {
+    /**
+     * 每一帧绘制完成后调用，metrics对象会被重复使用，不要在回调之外持有
+     */
+    void onFrameMetrics(WheelView view, WheelMetrics metrics);
+}
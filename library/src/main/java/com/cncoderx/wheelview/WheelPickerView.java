@@ -0,0 +1,391 @@
+package com.cncoderx.wheelview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewParent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在一个控件中绘制多列滚轮，例如日期时间选择器。每一列仍然是一个{@link WheelView}，
+ * 拥有独立的数据源和滚动动画，所有的列共用画笔、文字的度量信息、高亮区域和分割线。
+ * <p>
+ * 列重绘时只标记该列所在的区域，但所有的列都在同一个显示列表中：软件绘制时只有该区域内的列重新绘制；
+ * Android 5.0及以上开启硬件加速时系统会忽略重绘区域，每一列都会重新绘制。
+ * 对列开启{@link WheelView#setIdleCacheEnabled(boolean)}后，静止的列回放录制的画面，
+ * 重绘的开销接近一次drawPicture，但Android 6.0以下开启硬件加速的画布不支持回放，静止的列仍然完整绘制
+ *
+ * @author cncoderx
+ */
+public class WheelPickerView extends View {
+    int mItemCount;
+    int mItemWidth;
+    int mItemHeight;
+
+    TextPaint mTextPaint;
+    TextPaint mSelectedTextPaint;
+    Paint mDividerPaint;
+    Paint mHighlightPaint;
+
+    final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+    int mTextBaseline;
+
+    private final List<Column> mColumns = new ArrayList<>();
+    private final Rect mHighlightRect = new Rect();
+    // 正在接收触摸事件的列
+    private Column mTouchColumn;
+
+    public WheelPickerView(Context context) {
+        this(context, null);
+    }
+
+    public WheelPickerView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.WheelPickerView);
+        int columnCount = a.getInt(R.styleable.WheelPickerView_wheelColumnCount, 0);
+        int itemCount = a.getInt(R.styleable.WheelPickerView_wheelItemCount, 9);
+        int itemWidth = a.getDimensionPixelOffset(R.styleable.WheelPickerView_wheelItemWidth, $dp(R.dimen.wheel_item_width));
+        int itemHeight = a.getDimensionPixelOffset(R.styleable.WheelPickerView_wheelItemHeight, $dp(R.dimen.wheel_item_height));
+        int textSize = a.getDimensionPixelSize(R.styleable.WheelPickerView_wheelTextSize, $sp(R.dimen.wheel_text_size));
+        int textColor = a.getColor(R.styleable.WheelPickerView_wheelTextColor, $color(R.color.wheel_text_color));
+        int selectedTextColor = a.getColor(R.styleable.WheelPickerView_wheelSelectedTextColor, $color(R.color.wheel_selected_text_color));
+        int dividerColor = a.getColor(R.styleable.WheelPickerView_wheelDividerColor, $color(R.color.wheel_divider_color));
+        int highlightColor = a.getColor(R.styleable.WheelPickerView_wheelHighlightColor, $color(R.color.wheel_highlight_color));
+        a.recycle();
+
+        mItemCount = itemCount;
+        mItemWidth = itemWidth;
+        mItemHeight = itemHeight;
+
+        mTextPaint = new TextPaint();
+        mTextPaint.setAntiAlias(true);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextPaint.setTextSize(textSize);
+        mTextPaint.setColor(textColor);
+
+        mSelectedTextPaint = new TextPaint();
+        mSelectedTextPaint.setAntiAlias(true);
+        mSelectedTextPaint.setTextAlign(Paint.Align.CENTER);
+        mSelectedTextPaint.setTextSize(textSize);
+        mSelectedTextPaint.setColor(selectedTextColor);
+
+        updateTextMetrics();
+
+        mDividerPaint = new Paint();
+        mDividerPaint.setAntiAlias(true);
+        mDividerPaint.setStrokeWidth(getResources().getDimensionPixelOffset(R.dimen.wheel_divider_height));
+        mDividerPaint.setColor(dividerColor);
+
+        mHighlightPaint = new Paint();
+        mHighlightPaint.setAntiAlias(true);
+        mHighlightPaint.setStyle(Paint.Style.FILL);
+        mHighlightPaint.setColor(highlightColor);
+
+        for (int i = 0; i < columnCount; i++) {
+            addColumn();
+        }
+    }
+
+    /**
+     * 更新所有列共用的文字度量信息，需要在文字大小改变后调用
+     */
+    private void updateTextMetrics() {
+        mTextPaint.getFontMetrics(mFontMetrics);
+        mTextBaseline = (int) ((mFontMetrics.top + mFontMetrics.bottom) / 2);
+    }
+
+    int $dp(int resId) {
+        return getResources().getDimensionPixelOffset(resId);
+    }
+
+    int $sp(int resId) {
+        return getResources().getDimensionPixelSize(resId);
+    }
+
+    @SuppressWarnings("deprecation")
+    int $color(int resId) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return getContext().getColor(resId);
+        }
+        return getResources().getColor(resId);
+    }
+
+    /**
+     * 添加一列权重为1的滚轮
+     *
+     * @return 新添加的列，可以像普通的滚轮一样设置数据源和监听器
+     */
+    public WheelView addColumn() {
+        return addColumn(1);
+    }
+
+    /**
+     * 添加一列滚轮，控件的宽度按照权重分配给各列
+     *
+     * @param weight 列的权重
+     * @return 新添加的列，可以像普通的滚轮一样设置数据源和监听器
+     */
+    public WheelView addColumn(float weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        Column column = new Column(this, weight);
+        mColumns.add(column);
+        requestLayout();
+        invalidate();
+        return column;
+    }
+
+    public int getColumnCount() {
+        return mColumns.size();
+    }
+
+    public WheelView getColumn(int index) {
+        return mColumns.get(index);
+    }
+
+    public void removeAllColumns() {
+        for (Column column : mColumns) {
+            column.onDetached();
+        }
+        mColumns.clear();
+        mTouchColumn = null;
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthSpecMode = MeasureSpec.getMode(widthMeasureSpec);
+        int widthSpecSize = MeasureSpec.getSize(widthMeasureSpec);
+        int heightSpecMode = MeasureSpec.getMode(heightMeasureSpec);
+        int heightSpecSize = MeasureSpec.getSize(heightMeasureSpec);
+        if (widthSpecMode == MeasureSpec.EXACTLY
+                && heightSpecMode == MeasureSpec.EXACTLY) {
+            setMeasuredDimension(widthSpecSize, heightSpecSize);
+        } else if (widthSpecMode == MeasureSpec.EXACTLY) {
+            setMeasuredDimension(widthSpecSize, getPrefHeight());
+        } else if (heightSpecMode == MeasureSpec.EXACTLY) {
+            setMeasuredDimension(getPrefWidth(), heightSpecSize);
+        } else {
+            setMeasuredDimension(getPrefWidth(), getPrefHeight());
+        }
+    }
+
+    /**
+     * @return 控件的预算宽度
+     */
+    public int getPrefWidth() {
+        int width = getPaddingLeft() + getPaddingRight();
+        for (Column column : mColumns) {
+            width += Math.round(mItemWidth * column.mWeight);
+        }
+        return width;
+    }
+
+    /**
+     * @return 控件的预算高度
+     */
+    public int getPrefHeight() {
+        int paddingVertical = getPaddingTop() + getPaddingBottom();
+        return paddingVertical + mItemHeight * mItemCount;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        layoutColumns();
+    }
+
+    /**
+     * 按照权重分配各列的位置，列的坐标相对于控件的内容区域
+     */
+    private void layoutColumns() {
+        final int contentWidth = Math.max(0, getWidth() - getPaddingLeft() - getPaddingRight());
+        final int contentHeight = Math.max(0, getHeight() - getPaddingTop() - getPaddingBottom());
+        float totalWeight = 0;
+        for (Column column : mColumns) {
+            totalWeight += column.mWeight;
+        }
+
+        float weight = 0;
+        int columnLeft = 0;
+        for (Column column : mColumns) {
+            weight += column.mWeight;
+            final int columnRight = Math.round(contentWidth * weight / totalWeight);
+            column.measure(
+                    MeasureSpec.makeMeasureSpec(columnRight - columnLeft, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(contentHeight, MeasureSpec.EXACTLY));
+            column.layout(columnLeft, 0, columnRight, contentHeight);
+            columnLeft = columnRight;
+        }
+
+        final int middle = getPaddingTop() + contentHeight / 2;
+        mHighlightRect.set(getPaddingLeft(), middle - mItemHeight / 2,
+                getPaddingLeft() + contentWidth, middle + mItemHeight / 2);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        canvas.drawRect(mHighlightRect, mHighlightPaint);
+
+        final int paddingLeft = getPaddingLeft();
+        final int paddingTop = getPaddingTop();
+        for (int i = 0, n = mColumns.size(); i < n; i++) {
+            final Column column = mColumns.get(i);
+            canvas.save();
+            canvas.translate(paddingLeft + column.getLeft(), paddingTop);
+            // 开启画面缓存时，静止的列回放录制的画面
+            column.onDraw(canvas);
+            canvas.restore();
+        }
+
+        final Rect rect = mHighlightRect;
+        canvas.drawLine(rect.left, rect.top, rect.right, rect.top, mDividerPaint);
+        canvas.drawLine(rect.left, rect.bottom, rect.right, rect.bottom, mDividerPaint);
+    }
+
+    /**
+     * 标记指定列所在的区域需要重绘。开启硬件加速后系统会忽略该区域，重新绘制整个控件
+     */
+    void invalidateColumn(Column column) {
+        final int left = getPaddingLeft() + column.getLeft();
+        final int top = getPaddingTop() + column.getTop();
+        invalidate(left, top, left + column.getWidth(), top + column.getHeight());
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        final int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mTouchColumn = findColumn((int) event.getX() - getPaddingLeft());
+        }
+        final Column column = mTouchColumn;
+        if (column == null) return false;
+
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mTouchColumn = null;
+        }
+        return column.onTouchEvent(event);
+    }
+
+    private Column findColumn(int x) {
+        for (int i = 0, n = mColumns.size(); i < n; i++) {
+            final Column column = mColumns.get(i);
+            if (x >= column.getLeft() && x < column.getRight()) return column;
+        }
+        return null;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        for (int i = 0, n = mColumns.size(); i < n; i++) {
+            mColumns.get(i).onDetached();
+        }
+        mTouchColumn = null;
+    }
+
+    public float getTextSize() {
+        return mTextPaint.getTextSize();
+    }
+
+    public void setTextSize(int textSize) {
+        mTextPaint.setTextSize(textSize);
+        mSelectedTextPaint.setTextSize(textSize);
+        updateTextMetrics();
+        for (int i = 0, n = mColumns.size(); i < n; i++) {
+            final Column column = mColumns.get(i);
+            column.mTextBaseline = mTextBaseline;
+            column.onTextStyleChanged(true);
+        }
+        invalidate();
+    }
+
+    public int getTextColor() {
+        return mTextPaint.getColor();
+    }
+
+    public void setTextColor(int color) {
+        mTextPaint.setColor(color);
+        onTextColorChanged();
+    }
+
+    public int getSelectedTextColor() {
+        return mSelectedTextPaint.getColor();
+    }
+
+    public void setSelectedTextColor(int color) {
+        mSelectedTextPaint.setColor(color);
+        onTextColorChanged();
+    }
+
+    private void onTextColorChanged() {
+        for (int i = 0, n = mColumns.size(); i < n; i++) {
+            mColumns.get(i).onTextStyleChanged(false);
+        }
+        invalidate();
+    }
+
+    /**
+     * 多列滚轮中的一列，不会被添加到控件树中，重绘和触摸事件都由所在的控件转发
+     */
+    static class Column extends WheelView {
+        final WheelPickerView mPicker;
+        final float mWeight;
+
+        Column(WheelPickerView picker, float weight) {
+            super(picker);
+            mPicker = picker;
+            mWeight = weight;
+            mTextBaseline = picker.mTextBaseline;
+        }
+
+        @Override
+        void drawFrame(Canvas canvas) {
+            // 高亮区域和分割线由所在的控件统一绘制
+            drawItems(canvas);
+        }
+
+        @Override
+        public void invalidate() {
+            super.invalidate();
+            if (mPicker != null) {
+                mPicker.invalidateColumn(this);
+            }
+        }
+
+        @Override
+        void disallowParentInterceptTouchEvent(boolean disallow) {
+            final ViewParent parent = mPicker.getParent();
+            if (parent != null) {
+                parent.requestDisallowInterceptTouchEvent(disallow);
+            }
+        }
+
+        @Override
+        public void setTextSize(int textSize) {
+            // 画笔由所有的列共用
+            mPicker.setTextSize(textSize);
+        }
+
+        @Override
+        public void setTextColor(int color) {
+            mPicker.setTextColor(color);
+        }
+
+        @Override
+        public void setSelectedTextColor(int color) {
+            mPicker.setSelectedTextColor(color);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 立体滚轮的投影表，按选项与中间位置的距离（像素）预先计算投影参数，
+ * 绘制时只需查表，不再进行三角函数运算
+ *
+ * @author cncoderx
+ */
+class WheelProjection {
+    private int mRadius = -1;
+    // 可见的最大距离，超过该距离时文字已经垂直于屏幕
+    private int mMaxRange = -1;
+
+    private float[] mRotate;
+    private float[] mTranslateY;
+    private float[] mTranslateZ;
+    private int[] mAlpha;
+
+    int getRadius() {
+        return mRadius;
+    }
+
+    /**
+     * 设置滚轮的半径，半径改变时重新计算投影表
+     *
+     * @param radius 滚轮的半径
+     */
+    void setRadius(int radius) {
+        if (radius == mRadius) return;
+        mRadius = radius;
+        mMaxRange = radius > 0 ? (int) (radius * Math.PI / 2) : -1;
+        if (mMaxRange < 0) return;
+
+        final int length = mMaxRange * 2 + 1;
+        if (mRotate == null || mRotate.length < length) {
+            mRotate = new float[length];
+            mTranslateY = new float[length];
+            mTranslateZ = new float[length];
+            mAlpha = new int[length];
+        }
+        for (int i = 0; i < length; i++) {
+            final double angle = (double) (i - mMaxRange) / radius;
+            final double cos = Math.cos(angle);
+            mRotate[i] = (float) Math.toDegrees(-angle);
+            mTranslateY[i] = (float) (Math.sin(angle) * radius);
+            mTranslateZ[i] = (float) ((1 - cos) * radius);
+            mAlpha[i] = (int) (cos * 255);
+        }
+    }
+
+    int getMaxRange() {
+        return mMaxRange;
+    }
+
+    /**
+     * @param range 和中间选项的距离
+     * @return 该距离的选项是否可见
+     */
+    boolean isVisible(int range) {
+        return range >= -mMaxRange && range <= mMaxRange;
+    }
+
+    /**
+     * @return 绕x轴滚动的角度
+     */
+    float getRotate(int range) {
+        return mRotate[range + mMaxRange];
+    }
+
+    /**
+     * @return 滚动的距离映射到y轴的长度
+     */
+    float getTranslateY(int range) {
+        return mTranslateY[range + mMaxRange];
+    }
+
+    /**
+     * @return 滚动的距离映射到z轴的长度
+     */
+    float getTranslateZ(int range) {
+        return mTranslateZ[range + mMaxRange];
+    }
+
+    /**
+     * @return 透明度
+     */
+    int getAlpha(int range) {
+        return mAlpha[range + mMaxRange];
+    }
+}
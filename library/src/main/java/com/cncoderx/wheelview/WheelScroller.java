@@ -3,36 +3,234 @@ package com.cncoderx.wheelview;
 import android.content.Context;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
-import android.widget.Scroller;
+import android.view.ViewConfiguration;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+import java.util.concurrent.TimeUnit;
 
 /**
+ * 滚轮的滚动状态和动画。拖动、滑行和调整位置都由帧回调按照帧时间推进
+ *
  * @author cncoderx
  */
-public class WheelScroller extends Scroller {
+public class WheelScroller {
     private int mScrollOffset;
+    // 拖动时不足一个像素的偏移量，实际的滚动距离为mScrollOffset + mScrollFraction
+    private float mScrollFraction;
     private float lastTouchY;
     private boolean isScrolling;
+    private boolean isFramePosted;
+    private boolean isChangedEventPending;
+    private int mScrollState = OnWheelScrollStateListener.SCROLL_STATE_IDLE;
+    // 动画中由相邻两帧计算的滚动速度（像素/秒），静止和拖动时为0
+    private float mScrollVelocity;
+    private long mLastFrameTimeNanos;
+    private boolean hasLastFrame;
+    // 调整位置和代码触发的滚动动画
+    private final Interpolator mScrollInterpolator = new DecelerateInterpolator();
+    private int mScrollStartOffset;
+    private int mScrollDistance;
+    private int mScrollDuration;
+    // 滑行和滚动动画开始的时间（纳秒），与帧时间的基准相同
+    private long mScrollStartTimeNanos;
 
     final WheelView mWheelView;
     private VelocityTracker mVelocityTracker;
+    FrameScheduler mFrameScheduler = FrameScheduler.getInstance();
+    // 手指离开后的滑行动画，直接停靠在选项上
+    final WheelFling mFling;
     OnWheelChangedListener onWheelChangedListener;
+    OnWheelScrollStateListener onWheelScrollStateListener;
+    WheelGroup mWheelGroup;
+    // 是否将同一帧内的多次选项变化合并为一次回调
+    boolean isChangedEventCoalesced;
 
     public static final int JUSTIFY_DURATION = 400;
 
     public WheelScroller(Context context, WheelView wheelView) {
-        super(context);
         mWheelView = wheelView;
+        final float ppi = context.getResources().getDisplayMetrics().density * 160f;
+        mFling = new WheelFling(ppi, ViewConfiguration.getScrollFriction());
     }
 
+    /**
+     * 帧回调，每一帧推进一次滚动动画
+     */
+    private final FrameScheduler.FrameCallback mFrameCallback = new FrameScheduler.FrameCallback() {
+        @Override
+        void doFrame(long frameTimeNanos) {
+            isFramePosted = false;
+            computeScroll(frameTimeNanos);
+            dispatchWheelChanged();
+        }
+    };
+
+    /**
+     * 以当前时间推进滚动动画。滚动动画由帧回调驱动，一般不需要调用该方法
+     */
     public void computeScroll() {
+        computeScroll(mFrameScheduler.nanoTime());
+    }
+
+    /**
+     * 推进滚动动画，只有整数偏移量发生变化时才重绘
+     *
+     * @param frameTimeNanos 当前帧开始的时间（纳秒）
+     */
+    void computeScroll(long frameTimeNanos) {
+        if (!isScrolling) return;
+
+        // 动画开始后经过的时间（毫秒）
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(Math.max(0, frameTimeNanos - mScrollStartTimeNanos));
+        final int currY;
+        if (!mFling.isFinished()) {
+            isScrolling = mFling.computeOffset(elapsed);
+            currY = mFling.getCurrOffset();
+        } else {
+            isScrolling = elapsed < mScrollDuration;
+            currY = isScrolling
+                    ? mScrollStartOffset + Math.round(mScrollDistance
+                            * mScrollInterpolator.getInterpolation((float) elapsed / mScrollDuration))
+                    : mScrollStartOffset + mScrollDistance;
+        }
+        final int scrollOffset = mScrollOffset;
+        if (doScroll(currY - mScrollOffset)) {
+            mWheelView.invalidate();
+        }
+        updateScrollVelocity(frameTimeNanos, mScrollOffset - scrollOffset);
         if (isScrolling) {
-            isScrolling = computeScrollOffset();
-            doScroll(getCurrY() - mScrollOffset);
+            postFrame();
+        } else {
+            // 滚动结束后，重新调整位置
+            justify();
+            if (!isScrolling) {
+                resetScrollVelocity();
+                setScrollState(OnWheelScrollStateListener.SCROLL_STATE_IDLE);
+            }
+        }
+        final WheelMetrics metrics = mWheelView.mMetrics;
+        if (metrics != null) {
             if (isScrolling) {
-                mWheelView.postInvalidate();
+                metrics.onScrollFrame(frameTimeNanos);
             } else {
-                // 滚动结束后，重新调整位置
-                justify();
+                metrics.onScrollFinished();
+            }
+        }
+    }
+
+    private void updateScrollVelocity(long frameTimeNanos, int distance) {
+        if (hasLastFrame && frameTimeNanos > mLastFrameTimeNanos) {
+            mScrollVelocity = distance * 1e9f / (frameTimeNanos - mLastFrameTimeNanos);
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        hasLastFrame = true;
+    }
+
+    private void resetScrollVelocity() {
+        mScrollVelocity = 0;
+        hasLastFrame = false;
+    }
+
+    /**
+     * @return 滚动动画当前的速度（像素/秒），静止和拖动时为0
+     */
+    float getScrollVelocity() {
+        return mScrollVelocity;
+    }
+
+    private void postFrame() {
+        if (!isFramePosted) {
+            isFramePosted = true;
+            mFrameScheduler.postFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * 立即停止当前的滚动动画，滚轮停留在当前位置
+     */
+    void stopScroll() {
+        isScrolling = false;
+        mFling.abort();
+        resetScrollVelocity();
+        clearScrollFraction();
+        if (isFramePosted) {
+            isFramePosted = false;
+            mFrameScheduler.removeFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * 停止滚动动画，并将滚轮直接对齐到最近的选项
+     */
+    void finishScroll() {
+        stopScroll();
+        final int itemHeight = mWheelView.mItemHeight;
+        if (itemHeight > 0 && doScroll(Math.round((float) mScrollOffset / itemHeight) * itemHeight - mScrollOffset)) {
+            mWheelView.invalidate();
+        }
+        setScrollState(OnWheelScrollStateListener.SCROLL_STATE_IDLE);
+    }
+
+    /**
+     * @return 拖动时不足一个像素的偏移量，绘制时用于亚像素定位
+     */
+    float getScrollFraction() {
+        return mScrollFraction;
+    }
+
+    /**
+     * 丢弃不足一个像素的偏移量，开始动画时调用，动画总是从整数位置开始
+     */
+    private void clearScrollFraction() {
+        if (mScrollFraction != 0) {
+            mScrollFraction = 0;
+            mWheelView.invalidate();
+        }
+    }
+
+    /**
+     * 拖动滚轮，保留不足一个像素的偏移量，缓慢拖动时不会丢失移动的距离
+     *
+     * @param distance 拖动的距离
+     * @return 滚动的位置是否发生变化
+     */
+    private boolean dragBy(float distance) {
+        final float exact = mScrollFraction + distance;
+        final int whole = Math.round(exact);
+        final int scrollOffset = mScrollOffset;
+        final boolean scrolled = whole != 0 && doScroll(whole);
+        float fraction = exact - whole;
+        if (mScrollOffset - scrollOffset != whole) {
+            // 到达边界
+            fraction = 0;
+        } else if (!mWheelView.isCyclic()) {
+            final int maxOffset = (mWheelView.getItemSize() - 1) * mWheelView.mItemHeight;
+            if ((mScrollOffset <= 0 && fraction < 0) || (mScrollOffset >= maxOffset && fraction > 0)) {
+                fraction = 0;
+            }
+        }
+        final boolean changed = scrolled || fraction != mScrollFraction;
+        mScrollFraction = fraction;
+        return changed;
+    }
+
+    int getScrollState() {
+        return mScrollState;
+    }
+
+    private void setScrollState(int scrollState) {
+        if (mScrollState == scrollState) return;
+
+        mScrollState = scrollState;
+        if (scrollState == OnWheelScrollStateListener.SCROLL_STATE_IDLE) {
+            // 先分发尚未回调的选项变化，保证onChanged在onSelectionSettled之前
+            dispatchWheelChanged();
+        }
+        if (onWheelScrollStateListener != null) {
+            onWheelScrollStateListener.onScrollStateChanged(mWheelView, scrollState);
+            if (scrollState == OnWheelScrollStateListener.SCROLL_STATE_IDLE) {
+                onWheelScrollStateListener.onSelectionSettled(mWheelView, getCurrentIndex());
             }
         }
     }
@@ -59,32 +257,38 @@ public class WheelScroller extends Scroller {
     }
 
     void notifyWheelChangedListener() {
+        if (isChangedEventCoalesced) {
+            // 合并模式下推迟到下一帧再回调
+            isChangedEventPending = true;
+            postFrame();
+        } else {
+            isChangedEventPending = true;
+            dispatchWheelChanged();
+        }
+    }
+
+    private void dispatchWheelChanged() {
+        if (!isChangedEventPending) return;
+
+        isChangedEventPending = false;
         int oldValue = currentIndex;
         int newValue = getCurrentIndex();
         if (oldValue != newValue) {
             currentIndex = newValue;
+            if (mWheelView.mAdapter instanceof BaseWheelAdapter) {
+                ((BaseWheelAdapter) mWheelView.mAdapter).onCurrentIndexChanged(newValue);
+            }
             if (onWheelChangedListener != null) {
                 onWheelChangedListener.onChanged(mWheelView, oldValue, newValue);
             }
+            if (mWheelGroup != null) {
+                mWheelGroup.onWheelChanged(mWheelView);
+            }
         }
     }
 
     public int getCurrentIndex() {
-        final int itemHeight = mWheelView.mItemHeight;
-        final int itemSize = mWheelView.getItemSize();
-        if (itemSize == 0) return -1;
-
-        int itemIndex;
-        if (mScrollOffset < 0) {
-            itemIndex = (mScrollOffset - itemHeight / 2) / itemHeight;
-        } else {
-            itemIndex = (mScrollOffset + itemHeight / 2) / itemHeight;
-        }
-        int currentIndex = itemIndex % itemSize;
-        if (currentIndex < 0) {
-            currentIndex += itemSize;
-        }
-        return currentIndex;
+        return WheelMath.currentIndex(mScrollOffset, mWheelView.mItemHeight, mWheelView.getItemSize());
     }
 
     public void setCurrentIndex(int index, boolean animated) {
@@ -92,54 +296,122 @@ public class WheelScroller extends Scroller {
         int distance = position - mScrollOffset;
         if (distance == 0) return;
         if (animated) {
-            isScrolling = true;
-            startScroll(0, mScrollOffset, 0, distance, JUSTIFY_DURATION);
-            mWheelView.invalidate();
+            mFling.abort();
+            clearScrollFraction();
+            startScroll(distance);
+            setScrollState(OnWheelScrollStateListener.SCROLL_STATE_SETTLING);
         } else {
+            stopScroll();
             if (doScroll(distance)) {
+                dispatchWheelChanged();
                 mWheelView.invalidate();
             }
+            setScrollState(OnWheelScrollStateListener.SCROLL_STATE_IDLE);
         }
     }
 
+    /**
+     * 数据源变化后将滚轮直接移动到指定的选项，保留当前选项内的偏移量。
+     * 正在滑行时会停止滑行并重新调整位置
+     *
+     * @return 滚动的距离是否发生变化
+     */
+    boolean relocate(int index) {
+        final int itemHeight = mWheelView.mItemHeight;
+        final int itemOffset = mScrollOffset - WheelMath.nearestIndex(mScrollOffset, itemHeight) * itemHeight;
+        final boolean animating = isScrolling;
+        if (animating) {
+            stopScroll();
+        }
+        clearScrollFraction();
+        final boolean changed = doScroll(index * itemHeight + itemOffset - mScrollOffset);
+        if (!changed) {
+            // 滚动距离不变时，循环滚动的选项也可能因为数量变化而改变
+            notifyWheelChangedListener();
+        }
+        if (animating) {
+            justify();
+            if (!isScrolling) {
+                setScrollState(OnWheelScrollStateListener.SCROLL_STATE_IDLE);
+            }
+        }
+        return changed;
+    }
+
+    int getScrollOffset() {
+        return mScrollOffset;
+    }
+
     public int getItemIndex() {
-        return mWheelView.mItemHeight == 0 ? 0 : mScrollOffset / mWheelView.mItemHeight;
+        return WheelMath.itemIndex(mScrollOffset, mWheelView.mItemHeight);
     }
 
     public int getItemOffset() {
-        return mWheelView.mItemHeight == 0 ? 0 : mScrollOffset % mWheelView.mItemHeight;
+        return WheelMath.itemOffset(mScrollOffset, mWheelView.mItemHeight);
     }
 
     public void reset() {
-        isScrolling = false;
+        stopScroll();
         mScrollOffset = 0;
         currentIndex = -1;
-        notifyWheelChangedListener();
-        forceFinished(true);
+        isChangedEventPending = true;
+        dispatchWheelChanged();
+        setScrollState(OnWheelScrollStateListener.SCROLL_STATE_IDLE);
     }
 
     /**
      * 当滚轮结束滑行后，调整滚轮的位置，需要调用该方法
      */
     void justify() {
+        clearScrollFraction();
         final int itemHeight = mWheelView.mItemHeight;
         final int offset = mScrollOffset % itemHeight;
         if (offset > 0 && offset < itemHeight / 2) {
-            isScrolling = true;
-            startScroll(0, mScrollOffset, 0, -offset, JUSTIFY_DURATION);
-            mWheelView.invalidate();
+            startScroll(-offset);
         } else if (offset >= itemHeight / 2) {
-            isScrolling = true;
-            startScroll(0, mScrollOffset, 0, itemHeight - offset, JUSTIFY_DURATION);
-            mWheelView.invalidate();
+            startScroll(itemHeight - offset);
         } else if (offset < 0 && offset > -itemHeight / 2) {
-            isScrolling = true;
-            startScroll(0, mScrollOffset, 0, -offset, JUSTIFY_DURATION);
-            mWheelView.invalidate();
+            startScroll(-offset);
         } else if (offset <= -itemHeight / 2) {
+            startScroll(-itemHeight - offset);
+        }
+    }
+
+    /**
+     * 在{@link #JUSTIFY_DURATION}内滚动指定的距离
+     */
+    private void startScroll(int distance) {
+        isScrolling = true;
+        mScrollStartOffset = mScrollOffset;
+        mScrollDistance = distance;
+        mScrollDuration = JUSTIFY_DURATION;
+        mScrollStartTimeNanos = mFrameScheduler.nanoTime();
+        postFrame();
+    }
+
+    /**
+     * 以指定的速度开始滑行，滑行结束时正好停靠在选项上
+     *
+     * @param velocityY 滑行速度（像素/秒）
+     */
+    void startFling(int velocityY) {
+        clearScrollFraction();
+        int minOffset = Integer.MIN_VALUE;
+        int maxOffset = Integer.MAX_VALUE;
+        if (!mWheelView.isCyclic()) {
+            minOffset = 0;
+            maxOffset = Math.max(0, (mWheelView.getItemSize() - 1) * mWheelView.mItemHeight);
+        }
+        if (mWheelView.mItemHeight > 0 && mFling.start(mScrollOffset, velocityY, mWheelView.mItemHeight,
+                minOffset, maxOffset, 0)) {
+            // 滑行的时间从0开始，每帧传入开始后经过的时间
             isScrolling = true;
-            startScroll(0, mScrollOffset, 0, -itemHeight - offset, JUSTIFY_DURATION);
-            mWheelView.invalidate();
+            mScrollStartTimeNanos = mFrameScheduler.nanoTime();
+            // 第一帧之前使用手指离开时的速度
+            mScrollVelocity = velocityY;
+            postFrame();
+        } else {
+            justify();
         }
     }
 
@@ -152,17 +424,19 @@ public class WheelScroller extends Scroller {
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
                 lastTouchY = event.getY();
-                forceFinished(true);
-                mWheelView.getParent().requestDisallowInterceptTouchEvent(true);
+                stopScroll();
+                setScrollState(OnWheelScrollStateListener.SCROLL_STATE_DRAGGING);
+                mWheelView.disallowParentInterceptTouchEvent(true);
                 break;
             case MotionEvent.ACTION_MOVE:
+                // 两帧之间的历史采样点已经由addMovement()交给VelocityTracker，
+                // 拖动的距离只取决于最新的采样点
                 float touchY = event.getY();
-                int deltaY = (int) (touchY - lastTouchY);
-                if (deltaY != 0) {
-                    if (doScroll(-deltaY)) {
+                if (touchY != lastTouchY) {
+                    if (dragBy(lastTouchY - touchY)) {
                         mWheelView.invalidate();
                     } else {
-                        mWheelView.getParent().requestDisallowInterceptTouchEvent(false);
+                        mWheelView.disallowParentInterceptTouchEvent(false);
                     }
                 }
                 lastTouchY = touchY;
@@ -172,20 +446,30 @@ public class WheelScroller extends Scroller {
                 float velocityY = mVelocityTracker.getYVelocity();
 
                 if (Math.abs(velocityY) > 0) {
-                    isScrolling = true;
-                    fling(0, mScrollOffset, 0, (int) -velocityY, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
-                    mWheelView.invalidate();
+                    startFling((int) -velocityY);
                 } else {
                     justify();
                 }
+                setScrollState(isScrolling ? OnWheelScrollStateListener.SCROLL_STATE_SETTLING
+                        : OnWheelScrollStateListener.SCROLL_STATE_IDLE);
+                recycleVelocityTracker();
+                break;
             case MotionEvent.ACTION_CANCEL:
-                // 当触发抬起、取消事件后，回收VelocityTracker
-                if (mVelocityTracker != null) {
-                    mVelocityTracker.recycle();
-                    mVelocityTracker = null;
-                }
+                // 拖动被父控件拦截时，同样需要调整位置
+                justify();
+                setScrollState(isScrolling ? OnWheelScrollStateListener.SCROLL_STATE_SETTLING
+                        : OnWheelScrollStateListener.SCROLL_STATE_IDLE);
+                recycleVelocityTracker();
                 break;
         }
         return true;
     }
+
+    private void recycleVelocityTracker() {
+        // 当触发抬起、取消事件后，回收VelocityTracker
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
 }
@@ -0,0 +1,233 @@
+package com.cncoderx.wheelview;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 选项的搜索索引，支持按照前缀查找选项，不区分大小写和重音符号。
+ * 索引在后台线程中建立，建立完成之前{@link #findIndex(CharSequence)}返回-1；
+ * 数据源可以提供选项的副本时在主线程中只复制选项，否则在主线程中分批读取，每批之间让出主线程。
+ * 数据源继承{@link BaseWheelAdapter}时，选项变化后只更新变化的部分，尚未准备好的选项（例如分页数据源中未读取的页）不加入索引。
+ * 除了构造方法指定的线程池之外，所有方法都需要在主线程中调用
+ *
+ * @author cncoderx
+ */
+public class WheelSearchIndex {
+    // 一次变化的选项超过该数量时，在后台线程中重新建立索引
+    private static final int MAX_INCREMENTAL_COUNT = 256;
+    // 在主线程中分批读取选项时，每批读取的数量
+    private static final int READ_CHUNK_SIZE = 512;
+
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private WheelAdapter mAdapter;
+    private WheelKeyIndex mKeyIndex;
+    // 每次重新建立索引时加1，用于丢弃过期的结果
+    private int mGeneration;
+    // 正在建立索引，此时再次重新建立只标记当前的结果过期，完成后再建立一次
+    private boolean isBuilding;
+
+    private final WheelDataObserver mDataObserver = new WheelDataObserver() {
+        @Override
+        void onChanged() {
+            rebuild();
+        }
+
+        @Override
+        void onItemRangeChanged(int start, int count) {
+            if (!canUpdate(count)) return;
+            mKeyIndex.change(start, snapshot(mAdapter, start, count));
+        }
+
+        @Override
+        void onItemRangeInserted(int start, int count) {
+            if (!canUpdate(count)) return;
+            mKeyIndex.insert(start, snapshot(mAdapter, start, count));
+        }
+
+        @Override
+        void onItemRangeRemoved(int start, int count) {
+            if (mKeyIndex == null) {
+                rebuild();
+                return;
+            }
+            mKeyIndex.remove(start, count);
+        }
+    };
+
+    /**
+     * 使用{@link AsyncTask#THREAD_POOL_EXECUTOR}建立索引
+     */
+    public WheelSearchIndex() {
+        this(AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * @param executor 建立索引的线程池
+     */
+    public WheelSearchIndex(Executor executor) {
+        mExecutor = executor;
+    }
+
+    public WheelAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    /**
+     * 设置需要建立索引的数据源，并在后台线程中建立索引
+     */
+    public void setAdapter(WheelAdapter adapter) {
+        if (mAdapter == adapter) return;
+
+        if (mAdapter instanceof BaseWheelAdapter) {
+            ((BaseWheelAdapter) mAdapter).unregisterDataObserver(mDataObserver);
+        }
+        mAdapter = adapter;
+        if (adapter instanceof BaseWheelAdapter) {
+            ((BaseWheelAdapter) adapter).registerDataObserver(mDataObserver);
+        }
+        rebuild();
+    }
+
+    /**
+     * @return 索引是否已经建立完成
+     */
+    public boolean isReady() {
+        return mKeyIndex != null;
+    }
+
+    /**
+     * @param prefix 选项的前缀
+     * @return 以该前缀开头的选项中，排序最靠前的选项位置。没有找到或者索引还没有建立完成时返回-1
+     */
+    public int findIndex(CharSequence prefix) {
+        if (mKeyIndex == null) return -1;
+        return mKeyIndex.find(prefix);
+    }
+
+    /**
+     * 在后台线程中重新建立索引。数据源没有继承{@link BaseWheelAdapter}时，选项变化后需要调用该方法
+     */
+    public void rebuild() {
+        mGeneration++;
+        mKeyIndex = null;
+        if (mAdapter == null || isBuilding) return;
+
+        startBuild();
+    }
+
+    private void startBuild() {
+        isBuilding = true;
+        final int generation = mGeneration;
+        final List<? extends CharSequence> items = mAdapter instanceof BaseWheelAdapter
+                ? ((BaseWheelAdapter) mAdapter).snapshotItems() : null;
+        if (items != null) {
+            build(generation, items);
+        } else {
+            mHandler.post(new ChunkReader(generation, mAdapter.getCount()));
+        }
+    }
+
+    /**
+     * 在后台线程中建立索引
+     *
+     * @param items 不会再被修改的选项
+     */
+    private void build(final int generation, final List<? extends CharSequence> items) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final CharSequence[] entries = new CharSequence[items.size()];
+                for (int i = 0; i < entries.length; i++) {
+                    final CharSequence item = items.get(i);
+                    entries[i] = item == null ? null : item.toString();
+                }
+                final WheelKeyIndex keyIndex = new WheelKeyIndex();
+                keyIndex.build(entries);
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onBuildFinished(generation, keyIndex);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @param keyIndex 建立的索引，读取选项时数据源发生了变化则为null
+     */
+    private void onBuildFinished(int generation, WheelKeyIndex keyIndex) {
+        isBuilding = false;
+        if (generation == mGeneration && keyIndex != null) {
+            mKeyIndex = keyIndex;
+        } else if (mAdapter != null) {
+            // 建立索引期间数据源发生了变化，丢弃这次的结果并重新建立
+            startBuild();
+        }
+    }
+
+    private boolean canUpdate(int count) {
+        if (mKeyIndex == null || count > MAX_INCREMENTAL_COUNT) {
+            rebuild();
+            return false;
+        }
+        return true;
+    }
+
+    private static CharSequence[] snapshot(WheelAdapter adapter, int start, int count) {
+        final CharSequence[] entries = new CharSequence[count];
+        readItems(adapter, start, count, entries, 0);
+        return entries;
+    }
+
+    /**
+     * 读取从start开始的count个选项，转换为不可变的字符串后从offset开始保存到entries中
+     */
+    private static void readItems(WheelAdapter adapter, int start, int count, CharSequence[] entries, int offset) {
+        final BaseWheelAdapter baseAdapter = adapter instanceof BaseWheelAdapter ? (BaseWheelAdapter) adapter : null;
+        for (int i = 0; i < count; i++) {
+            final CharSequence item = baseAdapter != null
+                    ? baseAdapter.peekItem(start + i) : adapter.getItem(start + i);
+            entries[offset + i] = item == null ? null : item.toString();
+        }
+    }
+
+    /**
+     * 在主线程中分批读取所有选项，读取完成后在后台线程中建立索引
+     */
+    private final class ChunkReader implements Runnable {
+        private final int mReaderGeneration;
+        private final CharSequence[] mEntries;
+        private int mPosition;
+
+        ChunkReader(int generation, int count) {
+            mReaderGeneration = generation;
+            mEntries = new CharSequence[count];
+        }
+
+        @Override
+        public void run() {
+            // 读取期间数据源发生了变化
+            if (mReaderGeneration != mGeneration || mAdapter == null
+                    || mAdapter.getCount() != mEntries.length) {
+                onBuildFinished(mReaderGeneration, null);
+                return;
+            }
+            final int count = Math.min(READ_CHUNK_SIZE, mEntries.length - mPosition);
+            readItems(mAdapter, mPosition, count, mEntries, mPosition);
+            mPosition += count;
+            if (mPosition < mEntries.length) {
+                mHandler.post(this);
+            } else {
+                build(mReaderGeneration, Arrays.asList(mEntries));
+            }
+        }
+    }
+}
@@ -1,41 +1,139 @@
 package com.cncoderx.wheelview;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
+import android.graphics.LinearGradient;
 import android.graphics.Paint;
+import android.graphics.Picture;
 import android.graphics.Rect;
+import android.graphics.Shader;
+import android.os.Build;
 import android.text.TextPaint;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewParent;
+import android.view.animation.Interpolator;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * @author cncoderx
  */
 public class WheelView extends View {
+    /**
+     * 文字超出选项宽度时不做处理
+     */
+    public static final int TEXT_FIT_NONE = 0;
+    /**
+     * 文字超出选项宽度时缩小文字，缩小到一半后仍然超出时省略末尾的文字
+     */
+    public static final int TEXT_FIT_SHRINK = 1;
+    /**
+     * 文字超出选项宽度时省略末尾的文字
+     */
+    public static final int TEXT_FIT_ELLIPSIZE = 2;
+
     boolean mCyclic;
     int mItemCount;
     int mItemWidth;
     int mItemHeight;
-    Rect mClipRectTop;
-    Rect mClipRectMiddle;
-    Rect mClipRectBottom;
+    final Rect mClipRectTop = new Rect();
+    final Rect mClipRectMiddle = new Rect();
+    final Rect mClipRectBottom = new Rect();
+    final Rect mClipRectContent = new Rect();
 
     TextPaint mTextPaint;
     TextPaint mSelectedTextPaint;
+    // 单次绘制时使用的画笔，以渐变在分界线处切换文字颜色
+    TextPaint mSplitTextPaint;
+    private boolean isSinglePassEnabled;
+    private boolean isSplitTextPaintValid;
+    private boolean isDrawingSinglePass;
     Paint mDividerPaint;
     Paint mHighlightPaint;
 
+    // 文字的度量信息，在文字样式改变时更新，避免绘制时重复创建
+    final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+    int mTextBaseline;
+
     WheelScroller mScroller;
+    final WheelLayoutEngine mLayoutEngine = new WheelLayoutEngine();
+
+    WheelMetrics mMetrics;
+    WheelMetricsListener mMetricsListener;
 
-    final List<CharSequence> mEntries = new ArrayList<>();
+    WheelAdapter mAdapter;
+    WheelSearchIndex mSearchIndex;
+    // 自适应宽度的文字，在后台线程中测量，未开启时为null
+    TextFitter mTextFitter;
+    // 当前绘制的选项文字的缩放比例，由getItemText()更新
+    float mItemTextScale = 1;
+    // 自定义的选项渲染器，为null时直接绘制文字
+    ItemRenderer mItemRenderer;
+    // 传递给渲染器的绘制状态，所有选项重复使用同一个对象
+    final ItemRenderState mRenderState = new ItemRenderState(this);
+    // 最近一次clipItem()裁剪的区域
+    private Rect mItemClipRect;
+    // 开始降低绘制质量的滚动速度（像素/秒），为0时不降低
+    private float mLevelOfDetailVelocity;
+    // 当前帧的绘制质量，1为完整绘制，0为最简绘制，由滚动速度计算
+    float mLevelOfDetail = 1;
+
+    // 静止时录制的画面，父控件引起的重绘直接回放，滚动时不使用
+    private Picture mIdlePicture;
+    private boolean isIdlePictureValid;
+    private boolean isIdleCacheEnabled = false;
+    // 同一个静止画面连续绘制的次数，第二次绘制时才开始录制
+    private int mIdleDrawCount;
+    private int mIdleScrollOffset;
+    private int mIdleWidth;
+    private int mIdleHeight;
+    // 录制时的内容区域和选中区域，内边距或选项高度变化后画面过期
+    private final Rect mIdleContentRect = new Rect();
+    private final Rect mIdleMiddleRect = new Rect();
+    // 其他线程通过postInvalidate请求重绘时设置，下次绘制时丢弃录制的画面
+    private volatile boolean isIdleCacheStale;
+    // 上一次数据变化后的选项数量，用于计算变化前选中的选项
+    private int mObservedItemSize;
+
+    private final WheelDataObserver mDataObserver = new WheelDataObserver() {
+        @Override
+        void onChanged() {
+            final int oldIndex = getObservedIndex();
+            relocate(oldIndex, true, 0, Integer.MAX_VALUE);
+        }
+
+        @Override
+        void onItemRangeChanged(int start, int count) {
+            final int oldIndex = getObservedIndex();
+            relocate(oldIndex, isRangeVisible(start, start + count), start, start + count);
+        }
+
+        @Override
+        void onItemRangeInserted(int start, int count) {
+            final int oldIndex = getObservedIndex();
+            final boolean visible = isCyclic() || isRangeVisible(start, Integer.MAX_VALUE);
+            // 在选中的选项之前插入时，保持原来的选项被选中；插入位置之后的选项位置都发生了变化
+            relocate(oldIndex >= start ? oldIndex + count : oldIndex, visible, start, Integer.MAX_VALUE);
+        }
+
+        @Override
+        void onItemRangeRemoved(int start, int count) {
+            final int oldIndex = getObservedIndex();
+            final boolean visible = isCyclic() || isRangeVisible(start, Integer.MAX_VALUE);
+            int newIndex = oldIndex;
+            if (oldIndex >= start + count) {
+                newIndex = oldIndex - count;
+            } else if (oldIndex >= start) {
+                // 选中的选项被删除时，选中删除位置的选项
+                newIndex = start;
+            }
+            relocate(newIndex, visible, start, Integer.MAX_VALUE);
+        }
+    };
 
     public WheelView(Context context) {
         this(context, null);
@@ -73,6 +171,8 @@ public class WheelView extends View {
         mSelectedTextPaint.setTextSize(textSize);
         mSelectedTextPaint.setColor(selectedTextColor);
 
+        updateTextMetrics();
+
         mDividerPaint = new Paint();
         mDividerPaint.setAntiAlias(true);
         mDividerPaint.setStrokeWidth(getResources().getDimensionPixelOffset(R.dimen.wheel_divider_height));
@@ -84,12 +184,30 @@ public class WheelView extends View {
         mHighlightPaint.setColor(highlightColor);
 
         if (entries != null && entries.length > 0) {
-            mEntries.addAll(Arrays.asList(entries));
+            ListWheelAdapter adapter = new ListWheelAdapter(entries);
+            adapter.registerDataObserver(mDataObserver);
+            mAdapter = adapter;
+            mObservedItemSize = adapter.getCount();
         }
 
         mScroller = new WheelScroller(context, this);
     }
 
+    /**
+     * 多列滚轮中的一列，与所在的控件共用画笔，不会被添加到控件树中
+     */
+    WheelView(WheelPickerView picker) {
+        super(picker.getContext());
+        mItemCount = picker.mItemCount;
+        mItemWidth = picker.mItemWidth;
+        mItemHeight = picker.mItemHeight;
+        mTextPaint = picker.mTextPaint;
+        mSelectedTextPaint = picker.mSelectedTextPaint;
+        mDividerPaint = picker.mDividerPaint;
+        mHighlightPaint = picker.mHighlightPaint;
+        mScroller = new WheelScroller(picker.getContext(), this);
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         int widthSpecMode = MeasureSpec.getMode(widthMeasureSpec);
@@ -116,23 +234,31 @@ public class WheelView extends View {
         int clipBottom = getMeasuredHeight() - getPaddingBottom();
         int clipVMiddle = (clipTop + clipBottom) / 2;
 
-        mClipRectMiddle = new Rect();
-        mClipRectMiddle.left = clipLeft;
-        mClipRectMiddle.right = clipRight;
-        mClipRectMiddle.top = clipVMiddle - mItemHeight / 2;
-        mClipRectMiddle.bottom = clipVMiddle + mItemHeight / 2;
+        if (mTextFitter != null && clipRight - clipLeft != mClipRectMiddle.width()) {
+            mTextFitter.clear();
+        }
+        mClipRectMiddle.set(clipLeft, clipVMiddle - mItemHeight / 2, clipRight, clipVMiddle + mItemHeight / 2);
+        mClipRectTop.set(clipLeft, clipTop, clipRight, clipVMiddle - mItemHeight / 2);
+        mClipRectBottom.set(clipLeft, clipVMiddle + mItemHeight / 2, clipRight, clipBottom);
+        mClipRectContent.set(clipLeft, clipTop, clipRight, clipBottom);
+        isSplitTextPaintValid = false;
+        discardIdleCache();
+    }
 
-        mClipRectTop = new Rect();
-        mClipRectTop.left = clipLeft;
-        mClipRectTop.right = clipRight;
-        mClipRectTop.top = clipTop;
-        mClipRectTop.bottom = clipVMiddle - mItemHeight / 2;
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        if (changed) {
+            discardIdleCache();
+        }
+    }
 
-        mClipRectBottom = new Rect();
-        mClipRectBottom.left = clipLeft;
-        mClipRectBottom.right = clipRight;
-        mClipRectBottom.top = clipVMiddle + mItemHeight / 2;
-        mClipRectBottom.bottom = clipBottom;
+    /**
+     * 更新文字的度量信息，需要在文字大小改变后调用
+     */
+    void updateTextMetrics() {
+        mTextPaint.getFontMetrics(mFontMetrics);
+        mTextBaseline = (int) ((mFontMetrics.top + mFontMetrics.bottom) / 2);
     }
 
     int $dp(int resId) {
@@ -143,7 +269,11 @@ public class WheelView extends View {
         return getResources().getDimensionPixelSize(resId);
     }
 
+    @SuppressWarnings("deprecation")
     int $color(int resId) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return getContext().getColor(resId);
+        }
         return getResources().getColor(resId);
     }
 
@@ -165,107 +295,272 @@ public class WheelView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
-        drawHighlight(canvas);
-        drawItems(canvas);
-        drawDivider(canvas);
-    }
+        final WheelMetrics metrics = mMetrics;
+        long startTime = 0;
+        if (metrics != null) {
+            startTime = System.nanoTime();
+            metrics.beginFrame();
+        }
 
-    private void drawItems(Canvas canvas) {
-        final int index = mScroller.getItemIndex();
-        final int offset = mScroller.getItemOffset();
-        final int hf = (mItemCount + 1) / 2;
-        final int minIdx, maxIdx;
-        if (offset < 0) {
-            minIdx = index - hf - 1;
-            maxIdx = index + hf;
-        } else if (offset > 0) {
-            minIdx = index - hf;
-            maxIdx = index + hf + 1;
+        updateLevelOfDetail();
+        if (canUseIdleCache(canvas)) {
+            drawIdleFrame(canvas);
         } else {
-            minIdx = index - hf;
-            maxIdx = index + hf;
+            discardIdleCache();
+            drawFrame(canvas);
         }
-        for (int i = minIdx; i < maxIdx; i++) {
-            drawItem(canvas, i, offset);
+        if (mTextFitter != null) {
+            // 绘制结束后提交本帧未测量的选项，并预先测量当前选项前后的选项
+            mTextFitter.scheduleFlush(getCurrentIndex());
+        }
+
+        if (metrics != null) {
+            metrics.endFrame(System.nanoTime() - startTime);
+            if (mMetricsListener != null) {
+                mMetricsListener.onFrameMetrics(this, metrics);
+            }
         }
     }
 
-    protected void drawItem(Canvas canvas, int index, int offset) {
-        CharSequence text = getCharSequence(index);
-        if (text == null) return;
+    /**
+     * 根据滚动速度计算本帧的绘制质量。速度低于阈值的一半时完整绘制，达到阈值时最简绘制，中间线性过渡
+     */
+    private void updateLevelOfDetail() {
+        final float threshold = mLevelOfDetailVelocity;
+        if (threshold <= 0) {
+            mLevelOfDetail = 1;
+            return;
+        }
+        final float velocity = Math.abs(mScroller.getScrollVelocity());
+        mLevelOfDetail = Math.max(0, Math.min(1, 2 * (threshold - velocity) / threshold));
+    }
 
-        final int centerX = mClipRectMiddle.centerX();
-        final int centerY = mClipRectMiddle.centerY();
+    void drawItems(Canvas canvas) {
+        final WheelLayoutEngine engine = mLayoutEngine;
+        engine.configure(mItemHeight, mItemCount, getItemSize(), isCyclic());
+        engine.setViewport(mClipRectTop.top, mClipRectBottom.bottom);
+        engine.layout(mScroller.getScrollOffset());
 
-        // 和中间选项的距离
-        final int range = (index - mScroller.getItemIndex()) * mItemHeight - offset;
+        // 自定义渲染器绘制的内容不一定是文字，不能使用渐变的画笔
+        isDrawingSinglePass = isSinglePassEnabled && mItemRenderer == null && canDrawSinglePass();
+        if (isDrawingSinglePass) {
+            if (!isSplitTextPaintValid) {
+                updateSplitTextPaint();
+            }
+            // 所有的选项共用一次裁剪
+            clipItem(canvas, mClipRectContent);
+        }
+        for (int i = 0, n = engine.getVisibleCount(); i < n; i++) {
+            drawItem(canvas, engine.getItem(i));
+        }
+        if (isDrawingSinglePass) {
+            canvas.restore();
+            isDrawingSinglePass = false;
+        }
+    }
 
-        Paint.FontMetrics fontMetrics = mTextPaint.getFontMetrics();
-        int baseline = (int) ((fontMetrics.top + fontMetrics.bottom) / 2);
+    /**
+     * @return 是否可以用渐变在分界线处切换文字颜色，子类对文字进行透视变换时不能使用
+     */
+    boolean canDrawSinglePass() {
+        return true;
+    }
 
-        // 绘制与下分界线相交的文字
-        if (range > 0 && range < mItemHeight) {
-            canvas.save();
-            canvas.clipRect(mClipRectMiddle);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mSelectedTextPaint);
-            canvas.restore();
+    /**
+     * 更新单次绘制的画笔，渐变在分界线的位置突变，与分别裁剪绘制两种颜色的结果一致
+     */
+    private void updateSplitTextPaint() {
+        if (mSplitTextPaint == null) {
+            mSplitTextPaint = new TextPaint();
+        }
+        mSplitTextPaint.set(mTextPaint);
+        mSplitTextPaint.setAlpha(255);
 
-            canvas.save();
-            canvas.clipRect(mClipRectBottom);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mTextPaint);
-            canvas.restore();
+        final float top = mClipRectContent.top;
+        final float height = Math.max(1, mClipRectContent.height());
+        final float dividerTop = (mClipRectMiddle.top - top) / height;
+        final float dividerBottom = (mClipRectMiddle.bottom - top) / height;
+        final int textColor = mTextPaint.getColor();
+        final int selectedTextColor = mSelectedTextPaint.getColor();
+        mSplitTextPaint.setShader(new LinearGradient(0, top, 0, top + height,
+                new int[]{textColor, textColor, selectedTextColor, selectedTextColor, textColor, textColor},
+                new float[]{0, dividerTop, dividerTop, dividerBottom, dividerBottom, 1},
+                Shader.TileMode.CLAMP));
+        isSplitTextPaintValid = true;
+    }
+
+    /**
+     * 绘制一个可见的选项
+     *
+     * @param canvas 画布
+     * @param item 选项的布局信息，只在本次绘制中有效
+     */
+    protected void drawItem(Canvas canvas, ItemLayout item) {
+        CharSequence text = getItemText(item.position);
+        if (text == null) return;
+        if (mMetrics != null) {
+            mMetrics.mItemCount++;
         }
-        // 绘制下分界线下方的文字
-        else if (range >= mItemHeight) {
-            canvas.save();
-            canvas.clipRect(mClipRectBottom);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mTextPaint);
-            canvas.restore();
+        if (mItemRenderer != null) {
+            prepareRenderState(item, text);
         }
-        // 绘制与上分界线相交的文字
-        else if (range < 0 && range > -mItemHeight) {
-            canvas.save();
-            canvas.clipRect(mClipRectMiddle);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mSelectedTextPaint);
-            canvas.restore();
 
-            canvas.save();
-            canvas.clipRect(mClipRectTop);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mTextPaint);
-            canvas.restore();
+        final int centerX = mClipRectMiddle.centerX();
+        final int centerY = mClipRectMiddle.centerY();
+        // 拖动时按照不足一个像素的偏移量进行亚像素定位
+        final float itemCenterY = centerY + item.range - mScroller.getScrollFraction();
+        final float y = itemCenterY - mTextBaseline;
+
+        if (isDrawingSinglePass && mItemTextScale == 1) {
+            // 画布已经裁剪，渐变的坐标与分界线对齐，直接绘制一次
+            canvas.drawText(text, 0, text.length(), centerX, y, mSplitTextPaint);
+            return;
         }
-        // 绘制上分界线上方的文字
-        else if (range <= -mItemHeight) {
-            canvas.save();
-            canvas.clipRect(mClipRectTop);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mTextPaint);
+        if (mLevelOfDetail == 0
+                && (item.band == ItemLayout.BAND_CROSS_TOP || item.band == ItemLayout.BAND_CROSS_BOTTOM)) {
+            // 快速滑行时看不清文字，与分界线相交的选项只按照所占比例较大的一侧绘制一次
+            clipItem(canvas, mClipRectContent);
+            drawItemText(canvas, text, centerX, y, itemCenterY,
+                    item.selectedFraction >= .5f ? mSelectedTextPaint : mTextPaint);
             canvas.restore();
+            return;
         }
-        // 绘制两条分界线之间的文字
-        else {
-            canvas.save();
-            canvas.clipRect(mClipRectMiddle);
-            canvas.drawText(text, 0, text.length(), centerX, centerY + range - baseline, mSelectedTextPaint);
-            canvas.restore();
+
+        switch (item.band) {
+            // 绘制与下分界线相交的文字
+            case ItemLayout.BAND_CROSS_BOTTOM:
+                clipItem(canvas, mClipRectMiddle);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mSelectedTextPaint);
+                canvas.restore();
+
+                clipItem(canvas, mClipRectBottom);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制下分界线下方的文字
+            case ItemLayout.BAND_BOTTOM:
+                clipItem(canvas, mClipRectBottom);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制与上分界线相交的文字
+            case ItemLayout.BAND_CROSS_TOP:
+                clipItem(canvas, mClipRectMiddle);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mSelectedTextPaint);
+                canvas.restore();
+
+                clipItem(canvas, mClipRectTop);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制上分界线上方的文字
+            case ItemLayout.BAND_TOP:
+                clipItem(canvas, mClipRectTop);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mTextPaint);
+                canvas.restore();
+                break;
+            // 绘制两条分界线之间的文字
+            default:
+                clipItem(canvas, mClipRectMiddle);
+                drawItemText(canvas, text, centerX, y, itemCenterY, mSelectedTextPaint);
+                canvas.restore();
+                break;
         }
     }
 
-    CharSequence getCharSequence(int index) {
-        int size = mEntries.size();
-        if (size == 0) return null;
-        CharSequence text = null;
-        if (isCyclic()) {
-            int i = index % size;
-            if (i < 0) {
-                i += size;
-            }
-            text = mEntries.get(i);
-        } else {
-            if (index >= 0 && index < size) {
-                text = mEntries.get(index);
+    /**
+     * 在选项的中心缩放并绘制文字，需要在clipItem()之后调用
+     */
+    private void drawItemText(Canvas canvas, CharSequence text, int x, float y, float centerY, TextPaint paint) {
+        if (mItemRenderer != null) {
+            renderItem(canvas, x, centerY, paint);
+            return;
+        }
+        final float scale = mItemTextScale;
+        if (scale != 1) {
+            canvas.scale(scale, scale, x, centerY);
+        }
+        canvas.drawText(text, 0, text.length(), x, y, paint);
+    }
+
+    /**
+     * 开始绘制一个选项前更新渲染器的绘制状态
+     */
+    void prepareRenderState(ItemLayout item, CharSequence text) {
+        final ItemRenderState state = mRenderState;
+        state.item = item;
+        state.text = text;
+        state.textScale = mItemTextScale;
+    }
+
+    /**
+     * 交给自定义的渲染器绘制选项，需要在clipItem()之后调用
+     *
+     * @param centerX 选项中心点的x坐标
+     * @param centerY 选项中心点的y坐标
+     * @param paint 当前区域的画笔
+     */
+    void renderItem(Canvas canvas, float centerX, float centerY, TextPaint paint) {
+        final ItemRenderState state = mRenderState;
+        state.centerX = centerX;
+        state.centerY = centerY;
+        state.baseline = centerY - mTextBaseline;
+        state.selected = paint == mSelectedTextPaint;
+        state.paint = paint;
+        state.clipRect = mItemClipRect;
+        mItemRenderer.drawItem(canvas, state);
+    }
+
+    /**
+     * 获取绘制时使用的选项文字。开启自适应后返回后台测量的结果，缩放比例保存在mItemTextScale中；
+     * 尚未测量的选项返回原始的文字，并在本帧结束后提交测量
+     */
+    CharSequence getItemText(int position) {
+        mItemTextScale = 1;
+        final TextFitter fitter = mTextFitter;
+        if (fitter != null) {
+            final int slot = fitter.find(position);
+            if (slot >= 0) {
+                mItemTextScale = fitter.mScales[slot];
+                final CharSequence text = fitter.mTexts[slot];
+                if (text != null) return text;
             }
         }
-        return text;
+        return getDrawingItem(position);
+    }
+
+    /**
+     * 获取选项原始的文字，返回的对象只在本帧中有效
+     */
+    CharSequence getDrawingItem(int position) {
+        final WheelAdapter adapter = mAdapter;
+        if (adapter instanceof BaseWheelAdapter) {
+            return ((BaseWheelAdapter) adapter).getDrawingItem(position);
+        }
+        return adapter.getItem(position);
+    }
+
+    /**
+     * 保存画布的状态并裁剪出选项的绘制区域，绘制完成后需要调用canvas.restore()
+     */
+    void clipItem(Canvas canvas, Rect clipRect) {
+        clipItem(canvas, clipRect, 0);
+    }
+
+    /**
+     * 保存画布的状态，水平平移后裁剪出选项的绘制区域，绘制完成后需要调用canvas.restore()
+     */
+    void clipItem(Canvas canvas, Rect clipRect, float translateX) {
+        canvas.save();
+        if (translateX != 0) {
+            canvas.translate(translateX, 0);
+        }
+        canvas.clipRect(clipRect);
+        mItemClipRect = clipRect;
+        if (mMetrics != null) {
+            mMetrics.mSaveCount++;
+            mMetrics.mClipCount++;
+        }
     }
 
     private void drawHighlight(Canvas canvas) {
@@ -280,14 +575,157 @@ public class WheelView extends View {
         canvas.drawLine(mClipRectMiddle.left, mClipRectMiddle.bottom, mClipRectMiddle.right, mClipRectMiddle.bottom, mDividerPaint);
     }
 
+    /**
+     * 绘制一帧完整的画面，静止时的画面缓存会录制该方法绘制的内容
+     */
+    void drawFrame(Canvas canvas) {
+        drawHighlight(canvas);
+        drawItems(canvas);
+        drawDivider(canvas);
+    }
+
+    private boolean canUseIdleCache(Canvas canvas) {
+        if (!isIdleCacheEnabled) return false;
+        if (mScroller.getScrollState() != OnWheelScrollStateListener.SCROLL_STATE_IDLE) return false;
+        // Android 6.0以下开启硬件加速的画布不支持drawPicture
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.M || !canvas.isHardwareAccelerated();
+    }
+
+    /**
+     * 绘制静止时的画面。静止后第一次绘制时直接绘制，再次绘制时录制画面，之后回放录制的画面，
+     * 直到滚动距离、控件大小、内边距、选项或样式发生变化
+     */
+    private void drawIdleFrame(Canvas canvas) {
+        final int scrollOffset = mScroller.getScrollOffset();
+        final int width = getWidth();
+        final int height = getHeight();
+        if (isIdleCacheStale || scrollOffset != mIdleScrollOffset || width != mIdleWidth || height != mIdleHeight
+                || !mClipRectContent.equals(mIdleContentRect) || !mClipRectMiddle.equals(mIdleMiddleRect)) {
+            discardIdleCache();
+            isIdleCacheStale = false;
+            mIdleScrollOffset = scrollOffset;
+            mIdleWidth = width;
+            mIdleHeight = height;
+            mIdleContentRect.set(mClipRectContent);
+            mIdleMiddleRect.set(mClipRectMiddle);
+        }
+        if (!isIdlePictureValid) {
+            if (mIdleDrawCount++ == 0) {
+                // 大多数情况下滚轮停止后不会再次绘制，不需要录制
+                drawFrame(canvas);
+                return;
+            }
+            if (mIdlePicture == null) {
+                mIdlePicture = new Picture();
+            }
+            drawFrame(mIdlePicture.beginRecording(width, height));
+            mIdlePicture.endRecording();
+            isIdlePictureValid = true;
+        }
+        canvas.drawPicture(mIdlePicture);
+    }
+
+    void discardIdleCache() {
+        isIdlePictureValid = false;
+        mIdleDrawCount = 0;
+    }
+
+    /**
+     * 滚轮自身请求重绘说明选项或样式可能发生了变化，丢弃静止时录制的画面
+     */
+    @Override
+    public void invalidate() {
+        discardIdleCache();
+        super.invalidate();
+    }
+
+    @Override
+    public void invalidate(Rect dirty) {
+        discardIdleCache();
+        super.invalidate(dirty);
+    }
+
+    @Override
+    public void invalidate(int l, int t, int r, int b) {
+        discardIdleCache();
+        super.invalidate(l, t, r, b);
+    }
+
+    /**
+     * postInvalidate()和postInvalidate(int, int, int, int)都通过这里请求重绘，可能在其他线程中调用
+     */
+    @Override
+    public void postInvalidateDelayed(long delayMilliseconds) {
+        isIdleCacheStale = true;
+        super.postInvalidateDelayed(delayMilliseconds);
+    }
+
+    @Override
+    public void postInvalidateDelayed(long delayMilliseconds, int left, int top, int right, int bottom) {
+        isIdleCacheStale = true;
+        super.postInvalidateDelayed(delayMilliseconds, left, top, right, bottom);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    @Override
+    public void postInvalidateOnAnimation() {
+        isIdleCacheStale = true;
+        super.postInvalidateOnAnimation();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    @Override
+    public void postInvalidateOnAnimation(int left, int top, int right, int bottom) {
+        isIdleCacheStale = true;
+        super.postInvalidateOnAnimation(left, top, right, bottom);
+    }
+
+    public boolean isIdleCacheEnabled() {
+        return isIdleCacheEnabled;
+    }
+
+    /**
+     * 设置是否缓存静止时的画面，默认关闭。开启后滚轮静止时由父控件引起的重绘会回放录制的画面，
+     * 拖动和滑行时自动停用。滚轮的内容由子类或渲染器根据滚轮以外的状态绘制时，
+     * 状态变化后需要调用{@link #invalidate()}，否则会回放过期的画面
+     */
+    public void setIdleCacheEnabled(boolean enabled) {
+        isIdleCacheEnabled = enabled;
+        if (!enabled) {
+            discardIdleCache();
+            mIdlePicture = null;
+        }
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         return mScroller.onTouchEvent(event);
     }
 
     @Override
-    public void computeScroll() {
-        mScroller.computeScroll();
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        onDetached();
+    }
+
+    /**
+     * 滚轮或者多列滚轮的控件脱离窗口时调用，释放画面缓存并停止动画
+     */
+    void onDetached() {
+        discardIdleCache();
+        mIdlePicture = null;
+        // 移除帧回调，避免滚轮脱离窗口后继续执行动画
+        mScroller.finishScroll();
+    }
+
+    /**
+     * 请求父控件不要拦截触摸事件
+     */
+    void disallowParentInterceptTouchEvent(boolean disallow) {
+        final ViewParent parent = getParent();
+        if (parent != null) {
+            parent.requestDisallowInterceptTouchEvent(disallow);
+        }
     }
 
     public boolean isCyclic() {
@@ -307,6 +745,43 @@ public class WheelView extends View {
     public void setTextSize(int textSize) {
         mTextPaint.setTextSize(textSize);
         mSelectedTextPaint.setTextSize(textSize);
+        updateTextMetrics();
+        onTextStyleChanged(true);
+    }
+
+    /**
+     * 文字样式改变后调用，丢弃与文字样式相关的缓存并重绘
+     *
+     * @param sizeChanged 文字的大小是否改变
+     */
+    void onTextStyleChanged(boolean sizeChanged) {
+        isSplitTextPaintValid = false;
+        if (sizeChanged && mTextFitter != null) {
+            mTextFitter.clear();
+        }
+        invalidate();
+    }
+
+    public int getTextFitMode() {
+        return mTextFitter != null ? mTextFitter.mMode : TEXT_FIT_NONE;
+    }
+
+    /**
+     * 设置文字超出选项宽度时的处理方式。开启后选项文字在后台线程中测量并调整，
+     * 测量完成之前绘制原始的文字
+     *
+     * @param mode {@link #TEXT_FIT_NONE}、{@link #TEXT_FIT_SHRINK}或者{@link #TEXT_FIT_ELLIPSIZE}
+     */
+    public void setTextFitMode(int mode) {
+        if (mode == getTextFitMode()) return;
+        if (mode != TEXT_FIT_NONE && mode != TEXT_FIT_SHRINK && mode != TEXT_FIT_ELLIPSIZE) {
+            throw new IllegalArgumentException("unknown text fit mode: " + mode);
+        }
+        if (mTextFitter != null) {
+            // 丢弃尚未返回的测量结果
+            mTextFitter.clear();
+        }
+        mTextFitter = mode != TEXT_FIT_NONE ? new TextFitter(this, mode) : null;
         invalidate();
     }
 
@@ -316,7 +791,7 @@ public class WheelView extends View {
 
     public void setTextColor(int color) {
         mTextPaint.setColor(color);
-        invalidate();
+        onTextStyleChanged(false);
     }
 
     public int getSelectedTextColor() {
@@ -325,18 +800,18 @@ public class WheelView extends View {
 
     public void setSelectedTextColor(int color) {
         mSelectedTextPaint.setColor(color);
-        invalidate();
+        onTextStyleChanged(false);
     }
 
     public int getItemSize() {
-        return mEntries.size();
+        return mAdapter == null ? 0 : mAdapter.getCount();
     }
 
     public CharSequence getItem(int index) {
-        if (index < 0 || index >= mEntries.size())
+        if (index < 0 || index >= getItemSize())
             return null;
 
-        return mEntries.get(index);
+        return mAdapter.getItem(index);
     }
 
     public CharSequence getCurrentItem() {
@@ -355,22 +830,236 @@ public class WheelView extends View {
         mScroller.setCurrentIndex(index, animated);
     }
 
-    public void setEntries(CharSequence... entries) {
-        mEntries.clear();
-        if (entries != null && entries.length > 0) {
-            Collections.addAll(mEntries, entries);
+    /**
+     * @return 当前选中的数值，仅在数据源为{@link NumericWheelAdapter}时可用
+     * @throws IllegalStateException 数据源不是{@link NumericWheelAdapter}，或者数据源中没有选项
+     */
+    public int getCurrentValue() {
+        final NumericWheelAdapter adapter = getNumericAdapter();
+        final int index = getCurrentIndex();
+        if (index < 0) {
+            throw new IllegalStateException("the adapter is empty");
+        }
+        return adapter.getValue(index);
+    }
+
+    public void setCurrentValue(int value) {
+        setCurrentValue(value, false);
+    }
+
+    /**
+     * 选中最接近该数值的选项，数据源中没有选项时不做任何操作
+     *
+     * @throws IllegalStateException 数据源不是{@link NumericWheelAdapter}
+     */
+    public void setCurrentValue(int value, boolean animated) {
+        final int index = getNumericAdapter().indexOf(value);
+        if (index < 0) return;
+
+        setCurrentIndex(index, animated);
+    }
+
+    private NumericWheelAdapter getNumericAdapter() {
+        if (!(mAdapter instanceof NumericWheelAdapter)) {
+            throw new IllegalStateException("the adapter is not a NumericWheelAdapter");
+        }
+        return (NumericWheelAdapter) mAdapter;
+    }
+
+    public WheelAdapter getAdapter() {
+        return mAdapter;
+    }
+
+    /**
+     * 设置滚轮的数据源，滚轮只会获取当前可见的选项，适用于选项数量很多的情况
+     *
+     * @param adapter 数据源
+     */
+    public void setAdapter(WheelAdapter adapter) {
+        if (mAdapter instanceof BaseWheelAdapter) {
+            ((BaseWheelAdapter) mAdapter).unregisterDataObserver(mDataObserver);
+        }
+        mAdapter = adapter;
+        if (adapter instanceof BaseWheelAdapter) {
+            ((BaseWheelAdapter) adapter).registerDataObserver(mDataObserver);
+        }
+        mObservedItemSize = getItemSize();
+        if (mSearchIndex != null) {
+            mSearchIndex.setAdapter(adapter);
         }
+        onAdapterDataChanged(0, Integer.MAX_VALUE);
         mScroller.reset();
         invalidate();
     }
 
+    /**
+     * 设置所有选项。当前的数据源是{@link ListWheelAdapter}时直接更新数据源，
+     * 滚轮会保持当前选中的选项，并且只在可见的选项发生变化时重绘
+     */
+    public void setEntries(CharSequence... entries) {
+        if (mAdapter instanceof ListWheelAdapter) {
+            ((ListWheelAdapter) mAdapter).setEntries(entries);
+        } else {
+            setAdapter(new ListWheelAdapter(entries));
+        }
+    }
+
+    /**
+     * @see #setEntries(CharSequence...)
+     */
     public void setEntries(Collection<? extends CharSequence> entries) {
-        mEntries.clear();
-        if (entries != null && entries.size() > 0) {
-            mEntries.addAll(entries);
+        if (mAdapter instanceof ListWheelAdapter) {
+            ((ListWheelAdapter) mAdapter).setEntries(entries);
+        } else {
+            setAdapter(new ListWheelAdapter(entries));
+        }
+    }
+
+    public WheelSearchIndex getSearchIndex() {
+        return mSearchIndex;
+    }
+
+    /**
+     * 设置搜索索引，索引会在后台线程中为当前的数据源建立，之后可以通过{@link #jumpTo(CharSequence, boolean)}
+     * 按照前缀跳转到选项
+     *
+     * @param searchIndex 搜索索引，为null时关闭搜索
+     */
+    public void setSearchIndex(WheelSearchIndex searchIndex) {
+        if (mSearchIndex != null) {
+            mSearchIndex.setAdapter(null);
+        }
+        mSearchIndex = searchIndex;
+        if (searchIndex != null) {
+            searchIndex.setAdapter(mAdapter);
+        }
+    }
+
+    /**
+     * @param prefix 选项的前缀，不区分大小写和重音符号
+     * @return 以该前缀开头的选项位置，没有找到或者索引还没有建立完成时返回-1
+     */
+    public int findIndex(CharSequence prefix) {
+        if (mSearchIndex == null) {
+            throw new IllegalStateException("the search index is not set");
+        }
+        return mSearchIndex.findIndex(prefix);
+    }
+
+    /**
+     * 跳转到以指定前缀开头的选项
+     *
+     * @param prefix 选项的前缀，不区分大小写和重音符号
+     * @param animated 是否以动画的方式滚动
+     * @return 是否找到了选项
+     */
+    public boolean jumpTo(CharSequence prefix, boolean animated) {
+        final int index = findIndex(prefix);
+        if (index < 0) return false;
+
+        setCurrentIndex(index, animated);
+        return true;
+    }
+
+    /**
+     * 数据源的选项发生变化时调用，子类可以在这里清除与选项相关的缓存
+     *
+     * @param start 第一个变化的选项位置
+     * @param end 最后一个变化的选项位置加1，插入或删除选项时为{@link Integer#MAX_VALUE}
+     */
+    void onAdapterDataChanged(int start, int end) {
+        if (mTextFitter != null) {
+            mTextFitter.clear(start, end);
+        }
+    }
+
+    /**
+     * 后台测量后选项的文字被缩小或者省略时调用，子类可以在这里清除与该选项相关的缓存
+     */
+    void onItemTextFitted(int position) {
+    }
+
+    /**
+     * @return 数据变化前选中的选项
+     */
+    private int getObservedIndex() {
+        return WheelMath.currentIndex(mScroller.getScrollOffset(), mItemHeight, mObservedItemSize);
+    }
+
+    /**
+     * 数据变化后将滚轮移动到指定的选项，超出范围时选中最后一个选项
+     *
+     * @param index 选中的选项
+     * @param visible 可见的选项是否发生了变化
+     * @param start 第一个变化的选项位置
+     * @param end 最后一个变化的选项位置加1
+     */
+    private void relocate(int index, boolean visible, int start, int end) {
+        final int itemSize = getItemSize();
+        mObservedItemSize = itemSize;
+        onAdapterDataChanged(start, end);
+        if (index < 0 || itemSize == 0) {
+            // 原来没有选项或者选项被全部删除时，回到初始位置
+            mScroller.reset();
+            invalidate();
+            return;
+        }
+        if (mScroller.relocate(Math.min(index, itemSize - 1)) || visible) {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return 数据源中[start, end)范围内的选项当前是否可见
+     */
+    private boolean isRangeVisible(int start, int end) {
+        final int index = WheelMath.nearestIndex(mScroller.getScrollOffset(), mItemHeight);
+        final int half = (mItemCount + 1) / 2 + 1;
+        if (!isCyclic()) {
+            return index + half >= start && index - half < end;
+        }
+        final int itemSize = getItemSize();
+        for (int i = index - half; i <= index + half; i++) {
+            final int position = WheelMath.itemPosition(i, itemSize, true);
+            if (position >= start && position < end) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 开启后每一帧都会统计绘制耗时、绘制的选项数量、画布操作次数、缓存命中率以及滚动时的掉帧次数，
+     * 关闭时不会产生额外的开销
+     *
+     * @param enabled 是否开启绘制统计
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled == isMetricsEnabled()) return;
+        mMetrics = enabled ? new WheelMetrics() : null;
+    }
+
+    public boolean isMetricsEnabled() {
+        return mMetrics != null;
+    }
+
+    /**
+     * @return 绘制统计信息，未开启统计时返回null
+     */
+    public WheelMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    public WheelMetricsListener getMetricsListener() {
+        return mMetricsListener;
+    }
+
+    /**
+     * 设置每一帧绘制完成后的统计回调，设置后自动开启绘制统计
+     */
+    public void setMetricsListener(WheelMetricsListener listener) {
+        mMetricsListener = listener;
+        if (listener != null) {
+            setMetricsEnabled(true);
         }
-        mScroller.reset();
-        invalidate();
     }
 
     public OnWheelChangedListener getOnWheelChangedListener() {
@@ -380,4 +1069,112 @@ public class WheelView extends View {
     public void setOnWheelChangedListener(OnWheelChangedListener onWheelChangedListener) {
         mScroller.onWheelChangedListener = onWheelChangedListener;
     }
+
+    public OnWheelScrollStateListener getOnWheelScrollStateListener() {
+        return mScroller.onWheelScrollStateListener;
+    }
+
+    public void setOnWheelScrollStateListener(OnWheelScrollStateListener onWheelScrollStateListener) {
+        mScroller.onWheelScrollStateListener = onWheelScrollStateListener;
+    }
+
+    /**
+     * @return 当前的滚动状态
+     * @see OnWheelScrollStateListener#SCROLL_STATE_IDLE
+     * @see OnWheelScrollStateListener#SCROLL_STATE_DRAGGING
+     * @see OnWheelScrollStateListener#SCROLL_STATE_SETTLING
+     */
+    public int getScrollState() {
+        return mScroller.getScrollState();
+    }
+
+    public boolean isChangedEventCoalesced() {
+        return mScroller.isChangedEventCoalesced;
+    }
+
+    /**
+     * 设置是否合并选项变化的回调。开启后，同一帧内经过的多个选项只会回调一次
+     * {@link OnWheelChangedListener#onChanged(WheelView, int, int)}，oldIndex为上一次回调的选项
+     */
+    public void setChangedEventCoalesced(boolean coalesced) {
+        mScroller.isChangedEventCoalesced = coalesced;
+    }
+
+    public boolean isSinglePassEnabled() {
+        return isSinglePassEnabled;
+    }
+
+    /**
+     * 设置是否单次绘制选项。开启后所有的选项共用一次裁剪，与分界线相交的选项以渐变切换颜色，
+     * 只绘制一次文字，绘制结果与分别绘制两种颜色相同。3D滚轮不支持该模式
+     */
+    public void setSinglePassEnabled(boolean enabled) {
+        if (isSinglePassEnabled == enabled) return;
+
+        isSinglePassEnabled = enabled;
+        invalidate();
+    }
+
+    public ItemRenderer getItemRenderer() {
+        return mItemRenderer;
+    }
+
+    /**
+     * 设置自定义的选项渲染器。滚轮仍然负责选项的裁剪和投影变换，渲染器只绘制选项的内容。
+     * 设置渲染器后不再使用单次绘制和3D滚轮的位图缓存
+     *
+     * @param renderer 选项渲染器，为null时恢复绘制文字
+     */
+    public void setItemRenderer(ItemRenderer renderer) {
+        if (mItemRenderer == renderer) return;
+
+        mItemRenderer = renderer;
+        onItemRendererChanged();
+        invalidate();
+    }
+
+    /**
+     * 选项渲染器改变，子类需要丢弃按照文字缓存的内容
+     */
+    void onItemRendererChanged() {
+    }
+
+    public float getLevelOfDetailVelocity() {
+        return mLevelOfDetailVelocity;
+    }
+
+    /**
+     * 设置降低绘制质量的滚动速度。滑行速度达到该值时，与分界线相交的选项不再分别绘制两种颜色，
+     * 3D滚轮不再进行透视变换，也不再创建新的位图；速度降到该值的一半以下时恢复完整绘制
+     *
+     * @param velocity 滚动速度（像素/秒），为0时始终完整绘制
+     */
+    public void setLevelOfDetailVelocity(float velocity) {
+        mLevelOfDetailVelocity = Math.max(0, velocity);
+    }
+
+    public float getFlingFriction() {
+        return mScroller.mFling.getFriction();
+    }
+
+    /**
+     * 设置滑行的摩擦系数，摩擦系数越大，滑行的距离越短，默认为{@link android.view.ViewConfiguration#getScrollFriction()}
+     */
+    public void setFlingFriction(float friction) {
+        mScroller.mFling.setFriction(friction);
+    }
+
+    public Interpolator getSnapInterpolator() {
+        return mScroller.mFling.getInterpolator();
+    }
+
+    /**
+     * 设置滑行到选项的曲线。曲线需要单调递增并且起点的斜率大于0，
+     * 滑行的时长按照曲线起点的斜率计算，使滑行开始时的速度与手指离开时的速度一致
+     *
+     * @param interpolator 滑行的曲线，为null时使用匀减速曲线
+     */
+    public void setSnapInterpolator(Interpolator interpolator) {
+        mScroller.mFling.setInterpolator(interpolator);
+    }
 }
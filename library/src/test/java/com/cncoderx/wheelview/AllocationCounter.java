@@ -0,0 +1,50 @@
+package com.cncoderx.wheelview;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 统计当前线程在多个区间内分配的内存字节数，已扣除统计本身的开销
+ */
+class AllocationCounter {
+    private final com.sun.management.ThreadMXBean mThreadBean;
+    private final long mThreadId;
+    private long mOverhead;
+    private long mStart;
+    private long mAllocatedBytes;
+
+    AllocationCounter() {
+        mThreadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+        calibrate();
+    }
+
+    private void calibrate() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 100; i++) {
+            long start = currentBytes();
+            long end = currentBytes();
+            overhead = Math.min(overhead, end - start);
+        }
+        mOverhead = overhead;
+    }
+
+    private long currentBytes() {
+        return mThreadBean.getThreadAllocatedBytes(mThreadId);
+    }
+
+    void begin() {
+        mStart = currentBytes();
+    }
+
+    void end() {
+        long bytes = currentBytes() - mStart - mOverhead;
+        if (bytes > 0) {
+            mAllocatedBytes += bytes;
+        }
+    }
+
+    long getAllocatedBytes() {
+        return mAllocatedBytes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.Rect;
+
+/**
+ * 只统计绘制操作次数的画布，不进行实际绘制，也不会创建任何对象
+ */
+class CountingCanvas extends Canvas {
+    int saveCount;
+    int restoreCount;
+    int clipCount;
+    int transformCount;
+    int drawTextCount;
+    int drawBitmapCount;
+    int drawShapeCount;
+    int drawPictureCount;
+
+    void reset() {
+        saveCount = 0;
+        restoreCount = 0;
+        clipCount = 0;
+        transformCount = 0;
+        drawTextCount = 0;
+        drawBitmapCount = 0;
+        drawShapeCount = 0;
+        drawPictureCount = 0;
+    }
+
+    int getOperationCount() {
+        return saveCount + restoreCount + clipCount + transformCount
+                + drawTextCount + drawBitmapCount + drawShapeCount + drawPictureCount;
+    }
+
+    @Override
+    public int save() {
+        return ++saveCount;
+    }
+
+    @Override
+    public void restore() {
+        restoreCount++;
+    }
+
+    @Override
+    public boolean clipRect(Rect rect) {
+        clipCount++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        clipCount++;
+        return true;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        transformCount++;
+    }
+
+    @Override
+    public void concat(Matrix matrix) {
+        transformCount++;
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        drawTextCount++;
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        drawTextCount++;
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        drawTextCount++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        drawBitmapCount++;
+    }
+
+    @Override
+    public void drawRect(Rect rect, Paint paint) {
+        drawShapeCount++;
+    }
+
+    @Override
+    public void drawPicture(Picture picture) {
+        drawPictureCount++;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        drawShapeCount++;
+    }
+}
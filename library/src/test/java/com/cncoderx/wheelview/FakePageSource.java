@@ -0,0 +1,48 @@
+package com.cncoderx.wheelview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 内存中的页数据来源，每次读取前等待指定的时间，模拟数据库的读取延迟，也可以模拟读取失败
+ */
+class FakePageSource implements PagedWheelAdapter.PageSource {
+    private final long mLatencyMillis;
+    private int mLoadCount;
+    private boolean isFailing;
+
+    FakePageSource(long latencyMillis) {
+        mLatencyMillis = latencyMillis;
+    }
+
+    synchronized int getLoadCount() {
+        return mLoadCount;
+    }
+
+    /**
+     * 设置之后的读取是否抛出异常
+     */
+    synchronized void setFailing(boolean failing) {
+        isFailing = failing;
+    }
+
+    @Override
+    public List<? extends CharSequence> loadPage(int start, int count) {
+        try {
+            Thread.sleep(mLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            mLoadCount++;
+            if (isFailing) {
+                throw new IllegalStateException("database is locked");
+            }
+        }
+        List<String> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add("item " + (start + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,159 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Bitmap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 测试按字节数限制容量的选项位图缓存
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class ItemBitmapCacheTest {
+    private static final int BITMAP_SIZE = 10;
+
+    // 一张位图占用的字节数
+    private int mBitmapBytes;
+
+    @Before
+    public void setUp() throws Exception {
+        final Bitmap bitmap = createBitmap(1);
+        mBitmapBytes = bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    @Test
+    public void get_keepsRecentlyUsedEntries() throws Exception {
+        final ItemBitmapCache cache = new ItemBitmapCache(mBitmapBytes * 3);
+        final Bitmap bitmap0 = createBitmap(1);
+        cache.put(0, bitmap0);
+        cache.put(1, createBitmap(1));
+        cache.put(2, createBitmap(1));
+
+        // 读取后成为最近使用的位图，超出容量时淘汰最久未使用的1
+        assertSame(bitmap0, cache.get(0));
+        cache.put(3, createBitmap(1));
+        assertNull(cache.get(1));
+        assertSame(bitmap0, cache.get(0));
+        assertEquals(mBitmapBytes * 3, cache.size());
+
+        cache.put(4, createBitmap(1));
+        assertNull(cache.get(2));
+        assertSame(bitmap0, cache.get(0));
+    }
+
+    @Test
+    public void put_keepsLargestRecentEntry() throws Exception {
+        final ItemBitmapCache cache = new ItemBitmapCache(mBitmapBytes * 2);
+        cache.put(0, createBitmap(1));
+
+        // 单张位图超出容量时仍然保留，淘汰其他的位图
+        final Bitmap large = createBitmap(3);
+        cache.put(1, large);
+        assertNull(cache.get(0));
+        assertSame(large, cache.get(1));
+        assertEquals(mBitmapBytes * 3, cache.size());
+
+        final Bitmap small = createBitmap(1);
+        cache.put(2, small);
+        assertNull(cache.get(1));
+        assertSame(small, cache.get(2));
+        assertEquals(mBitmapBytes, cache.size());
+    }
+
+    @Test
+    public void put_replacesExistingEntry() throws Exception {
+        final ItemBitmapCache cache = new ItemBitmapCache(mBitmapBytes * 3);
+        cache.put(0, createBitmap(1));
+        cache.put(1, createBitmap(1));
+
+        // 替换后只计算新位图的大小，并成为最近使用的位图
+        final Bitmap replacement = createBitmap(2);
+        cache.put(0, replacement);
+        assertEquals(mBitmapBytes * 3, cache.size());
+        assertSame(replacement, cache.get(0));
+
+        cache.put(2, createBitmap(1));
+        assertNull(cache.get(1));
+        assertSame(replacement, cache.get(0));
+        assertEquals(mBitmapBytes * 3, cache.size());
+    }
+
+    @Test
+    public void remove_updatesSizeAndOrder() throws Exception {
+        final ItemBitmapCache cache = new ItemBitmapCache(mBitmapBytes * 3);
+        cache.put(0, createBitmap(1));
+        cache.put(1, createBitmap(1));
+        cache.put(2, createBitmap(1));
+
+        // 分别移除链表中间、链表尾和链表头的位图
+        cache.remove(1);
+        cache.remove(0);
+        cache.remove(2);
+        cache.remove(5);
+        assertEquals(0, cache.size());
+        assertNull(cache.get(0));
+
+        cache.put(3, createBitmap(1));
+        cache.put(4, createBitmap(1));
+        cache.put(5, createBitmap(1));
+        cache.put(6, createBitmap(1));
+        assertNull(cache.get(3));
+        assertEquals(mBitmapBytes * 3, cache.size());
+    }
+
+    @Test
+    public void removeRange_removesBothColors() throws Exception {
+        final ItemBitmapCache cache = new ItemBitmapCache(mBitmapBytes * 10);
+        for (int position = 0; position < 4; position++) {
+            cache.put(ItemBitmapCache.keyOf(position, false), createBitmap(1));
+            cache.put(ItemBitmapCache.keyOf(position, true), createBitmap(1));
+        }
+
+        cache.removeRange(1, 3);
+        assertEquals(mBitmapBytes * 4, cache.size());
+        assertNull(cache.get(ItemBitmapCache.keyOf(1, false)));
+        assertNull(cache.get(ItemBitmapCache.keyOf(2, true)));
+        assertNotNull(cache.get(ItemBitmapCache.keyOf(0, true)));
+        assertNotNull(cache.get(ItemBitmapCache.keyOf(3, false)));
+
+        cache.removeRange(2, Integer.MAX_VALUE);
+        assertNull(cache.get(ItemBitmapCache.keyOf(3, false)));
+        assertEquals(mBitmapBytes * 2, cache.size());
+    }
+
+    @Test
+    public void setMaxSize_trimsEldestEntries() throws Exception {
+        final ItemBitmapCache cache = new ItemBitmapCache(mBitmapBytes * 3);
+        final Bitmap bitmap2 = createBitmap(1);
+        cache.put(0, createBitmap(1));
+        cache.put(1, createBitmap(1));
+        cache.put(2, bitmap2);
+
+        cache.setMaxSize(mBitmapBytes);
+        assertEquals(mBitmapBytes, cache.getMaxSize());
+        assertEquals(mBitmapBytes, cache.size());
+        assertNull(cache.get(0));
+        assertNull(cache.get(1));
+        assertSame(bitmap2, cache.get(2));
+
+        // 缩小到0时仍然保留最近使用的位图
+        cache.setMaxSize(0);
+        assertSame(bitmap2, cache.get(2));
+    }
+
+    /**
+     * @param scale 位图的宽度是默认宽度的倍数，占用的字节数也是相同的倍数
+     */
+    private static Bitmap createBitmap(int scale) {
+        return Bitmap.createBitmap(BITMAP_SIZE * scale, BITMAP_SIZE, Bitmap.Config.ARGB_8888);
+    }
+}
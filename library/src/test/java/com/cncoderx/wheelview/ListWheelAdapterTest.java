@@ -0,0 +1,108 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 测试数据源增量更新时的通知
+ */
+public class ListWheelAdapterTest {
+    private ListWheelAdapter mAdapter;
+    private RecordingObserver mObserver;
+
+    @Before
+    public void setUp() throws Exception {
+        mAdapter = new ListWheelAdapter(days(28));
+        mObserver = new RecordingObserver();
+        mAdapter.registerDataObserver(mObserver);
+    }
+
+    @Test
+    public void setEntries_appendsOnlyNewItems() throws Exception {
+        mAdapter.setEntries(days(31));
+        assertEquals(31, mAdapter.getCount());
+        assertEquals("inserted(28,3)", mObserver.events.toString());
+    }
+
+    @Test
+    public void setEntries_removesOnlyMissingItems() throws Exception {
+        mAdapter.setEntries(days(30));
+        mObserver.events.setLength(0);
+
+        mAdapter.setEntries(days(29));
+        assertEquals(29, mAdapter.getCount());
+        assertEquals("removed(29,1)", mObserver.events.toString());
+    }
+
+    @Test
+    public void setEntries_unchangedDoesNotNotify() throws Exception {
+        mAdapter.setEntries(days(28));
+        assertEquals("", mObserver.events.toString());
+    }
+
+    @Test
+    public void setEntries_replacesMiddle() throws Exception {
+        CharSequence[] entries = days(28);
+        entries[10] = "x";
+        entries[11] = "y";
+        mAdapter.setEntries(entries);
+        assertEquals("changed(10,2)", mObserver.events.toString());
+        assertEquals("y", mAdapter.getItem(11));
+    }
+
+    @Test
+    public void replace_notifiesChangedAndInserted() throws Exception {
+        mAdapter.replace(0, 1, Arrays.asList("a", "b", "c"));
+        assertEquals(30, mAdapter.getCount());
+        assertEquals("changed(0,1)inserted(1,2)", mObserver.events.toString());
+        assertEquals("c", mAdapter.getItem(2));
+        assertEquals("2", mAdapter.getItem(3));
+    }
+
+    @Test
+    public void numericSetRange_keepsStart() throws Exception {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(1, 28);
+        adapter.registerDataObserver(mObserver);
+        adapter.setRange(1, 31);
+        adapter.setRange(1, 30);
+        adapter.setRange(0, 30);
+        assertEquals("inserted(28,3)removed(30,1)changed()", mObserver.events.toString());
+        assertEquals("0", adapter.getItem(0));
+    }
+
+    private static CharSequence[] days(int count) {
+        CharSequence[] entries = new CharSequence[count];
+        for (int i = 0; i < count; i++) {
+            entries[i] = String.valueOf(i + 1);
+        }
+        return entries;
+    }
+
+    static class RecordingObserver extends WheelDataObserver {
+        final StringBuilder events = new StringBuilder();
+
+        @Override
+        void onChanged() {
+            events.append("changed()");
+        }
+
+        @Override
+        void onItemRangeChanged(int start, int count) {
+            events.append("changed(").append(start).append(',').append(count).append(')');
+        }
+
+        @Override
+        void onItemRangeInserted(int start, int count) {
+            events.append("inserted(").append(start).append(',').append(count).append(')');
+        }
+
+        @Override
+        void onItemRangeRemoved(int start, int count) {
+            events.append("removed(").append(start).append(',').append(count).append(')');
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cncoderx.wheelview;
+
+/**
+ * 手动触发帧回调的调度器，用于在测试中逐帧推进动画
+ */
+class ManualFrameScheduler extends FrameScheduler {
+    private FrameCallback mCallback;
+    private long mFrameTimeNanos;
+
+    /**
+     * 测试中的时钟只在执行帧回调时前进
+     */
+    @Override
+    long nanoTime() {
+        return mFrameTimeNanos;
+    }
+
+    @Override
+    void postFrameCallback(FrameCallback callback) {
+        mCallback = callback;
+    }
+
+    @Override
+    void removeFrameCallback(FrameCallback callback) {
+        if (mCallback == callback) {
+            mCallback = null;
+        }
+    }
+
+    boolean hasPendingFrame() {
+        return mCallback != null;
+    }
+
+    /**
+     * 执行等待中的帧回调
+     *
+     * @param frameIntervalNanos 与上一帧的间隔（纳秒）
+     */
+    void doFrame(long frameIntervalNanos) {
+        FrameCallback callback = mCallback;
+        mCallback = null;
+        mFrameTimeNanos += frameIntervalNanos;
+        if (callback != null) {
+            callback.doFrame(mFrameTimeNanos);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 测试数值范围的数据源的选项数量、数值、位置和文字格式
+ */
+public class NumericWheelAdapterTest {
+
+    @Test
+    public void step_skipsValues() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(0, 59, 5);
+        assertEquals(12, adapter.getCount());
+        assertEquals(0, adapter.getValue(0));
+        assertEquals(55, adapter.getValue(11));
+        assertEquals("55", adapter.getItem(11).toString());
+
+        // 最大值不在步长上时，最后一个选项小于最大值
+        adapter.setRange(0, 57);
+        assertEquals(12, adapter.getCount());
+        assertEquals(55, adapter.getValue(adapter.getCount() - 1));
+    }
+
+    @Test
+    public void negativeValues_areFormatted() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(-10, 10, 5);
+        assertEquals(5, adapter.getCount());
+        assertEquals(-10, adapter.getValue(0));
+        assertEquals("-10", adapter.getItem(0).toString());
+        assertEquals("-5", adapter.getItem(1).toString());
+        assertEquals("0", adapter.getItem(2).toString());
+
+        adapter.setFormat(null, 2, null);
+        assertEquals("-05", adapter.getItem(1).toString());
+        assertEquals("00", adapter.getItem(2).toString());
+
+        final NumericWheelAdapter extreme = new NumericWheelAdapter(Integer.MIN_VALUE, Integer.MIN_VALUE);
+        assertEquals(String.valueOf(Integer.MIN_VALUE), extreme.getItem(0).toString());
+    }
+
+    @Test
+    public void setFormat_padsAndDecorates() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(0, 120);
+        adapter.setFormat(null, 2, "分");
+        assertEquals("05分", adapter.getItem(5).toString());
+        assertEquals("59分", adapter.getItem(59).toString());
+        // 超出最少位数时不截断
+        assertEquals("120分", adapter.getItem(120).toString());
+
+        adapter.setFormat("第", 0, null);
+        assertEquals("第0", adapter.getItem(0).toString());
+        assertEquals("第7", adapter.getItem(7).toString());
+
+        adapter.setFormat("No.", 3, "号");
+        assertEquals("No.007号", adapter.getItem(7).toString());
+    }
+
+    @Test
+    public void setFormat_notifiesAllItems() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(1, 12);
+        final ListWheelAdapterTest.RecordingObserver observer = new ListWheelAdapterTest.RecordingObserver();
+        adapter.registerDataObserver(observer);
+        adapter.getItem(3);
+
+        adapter.setFormat(null, 2, "月");
+        assertEquals("changed(0,12)", observer.events.toString());
+        assertEquals("04月", adapter.getItem(3).toString());
+    }
+
+    @Test
+    public void indexOf_roundsAndClamps() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(10, 50, 10);
+        assertEquals(0, adapter.indexOf(10));
+        assertEquals(2, adapter.indexOf(30));
+        // 四舍五入到最接近的选项，距离相同时选择较大的选项
+        assertEquals(1, adapter.indexOf(24));
+        assertEquals(2, adapter.indexOf(25));
+        assertEquals(2, adapter.indexOf(26));
+        // 超出范围时选择第一个或者最后一个选项
+        assertEquals(0, adapter.indexOf(Integer.MIN_VALUE));
+        assertEquals(0, adapter.indexOf(-5));
+        assertEquals(4, adapter.indexOf(60));
+        assertEquals(4, adapter.indexOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void indexOf_emptyAdapterReturnsMinusOne() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(10, 5);
+        assertEquals(0, adapter.getCount());
+        assertEquals(-1, adapter.indexOf(0));
+        assertEquals(-1, adapter.indexOf(10));
+        assertEquals(-1, adapter.indexOf(20));
+    }
+
+    @Test
+    public void wideRange_countsWithoutOverflow() throws Exception {
+        // 选项数量恰好为Integer.MAX_VALUE
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE - 2, 2);
+        assertEquals(Integer.MAX_VALUE, adapter.getCount());
+        assertEquals(Integer.MIN_VALUE, adapter.getValue(0));
+        assertEquals(Integer.MAX_VALUE - 3, adapter.getValue(adapter.getCount() - 1));
+        assertEquals(adapter.getCount() - 1, adapter.indexOf(Integer.MAX_VALUE));
+
+        final NumericWheelAdapter full = new NumericWheelAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE, 3);
+        assertEquals(Integer.MAX_VALUE, full.getValue(full.getCount() - 1));
+        assertEquals(full.getCount() - 1, full.indexOf(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fullIntRange_isRejected() throws Exception {
+        new NumericWheelAdapter(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void setRange_rejectsTooManyValues() throws Exception {
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(0, 10);
+        try {
+            adapter.setRange(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            throw new AssertionError("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // 拒绝后保持原来的范围
+        }
+        assertEquals(11, adapter.getCount());
+        assertEquals(10, adapter.getMaxValue());
+    }
+}
@@ -0,0 +1,159 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试紧凑保存选项文字的列表
+ */
+public class PackedEntryListTest {
+
+    @Test
+    public void modifications_matchArrayList() throws Exception {
+        final PackedEntryList packed = new PackedEntryList();
+        final List<CharSequence> expected = new ArrayList<>();
+        final List<CharSequence> entries = Arrays.<CharSequence>asList("100000", "", "100001", "100002", "北京");
+
+        packed.addAll(entries);
+        expected.addAll(entries);
+        assertContentEquals(expected, packed);
+
+        packed.subList(1, 3).clear();
+        expected.subList(1, 3).clear();
+        assertContentEquals(expected, packed);
+
+        packed.replace(1, 2, Arrays.<CharSequence>asList(new StringBuilder("200000"), "200001"));
+        expected.subList(1, 2).clear();
+        expected.addAll(1, Arrays.<CharSequence>asList("200000", "200001"));
+        assertContentEquals(expected, packed);
+
+        packed.add(0, "300000");
+        expected.add(0, "300000");
+        packed.remove(packed.size() - 1);
+        expected.remove(expected.size() - 1);
+        assertContentEquals(expected, packed);
+    }
+
+    @Test
+    public void bind_reusesView() throws Exception {
+        final PackedEntryList packed = new PackedEntryList();
+        packed.addAll(Arrays.<CharSequence>asList("Beijing", "Shanghai"));
+
+        final PackedEntryList.CharView view = new PackedEntryList.CharView();
+        assertSame(view, packed.bind(view, 1));
+        assertEquals("Shanghai", view.toString());
+
+        packed.replace(0, 2, Arrays.<CharSequence>asList("Guangzhou"));
+        assertSame(view, packed.bind(view, 0));
+        assertEquals("Guangzhou", view.toString());
+    }
+
+    @Test
+    public void append_growsInPlace() throws Exception {
+        final PackedEntryList packed = new PackedEntryList();
+        final List<CharSequence> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final String entry = String.valueOf(i);
+            packed.add(entry);
+            expected.add(entry);
+        }
+        assertContentEquals(expected, packed);
+
+        // 扩容后连续追加不会每次都重新分配数组
+        final AllocationCounter counter = new AllocationCounter();
+        counter.begin();
+        for (int i = 0; i < 16; i++) {
+            packed.add("1");
+        }
+        counter.end();
+        assertTrue(counter.getAllocatedBytes() < 10000);
+    }
+
+    @Test
+    public void randomModifications_matchArrayList() throws Exception {
+        final Random random = new Random(42);
+        final PackedEntryList packed = new PackedEntryList();
+        final List<CharSequence> expected = new ArrayList<>();
+        for (int round = 0; round < 2000; round++) {
+            final int from = random.nextInt(expected.size() + 1);
+            final int to = from + random.nextInt(Math.min(4, expected.size() - from) + 1);
+            final List<CharSequence> entries = new ArrayList<>();
+            final int count = random.nextInt(4);
+            for (int i = 0; i < count; i++) {
+                final String text = Integer.toString(random.nextInt(100000), 36);
+                entries.add(random.nextInt(8) == 0 ? new StyledText(text) : text);
+            }
+            packed.replace(from, to, entries);
+            expected.subList(from, to).clear();
+            expected.addAll(from, entries);
+            assertContentEquals(expected, packed);
+        }
+        packed.trimToSize();
+        assertContentEquals(expected, packed);
+    }
+
+    @Test
+    public void unpackableEntries_keepReferences() throws Exception {
+        final CharSequence styled = new StyledText("Shenzhen");
+        final PackedEntryList packed = new PackedEntryList();
+        packed.addAll(Arrays.asList("Chengdu", styled, null));
+
+        assertSame(styled, packed.get(1));
+        assertSame(styled, packed.bind(new PackedEntryList.CharView(), 1));
+        assertNull(packed.get(2));
+        assertTrue(packed.contentEquals(0, "Chengdu"));
+        assertFalse(packed.contentEquals(0, "Chengd"));
+        assertTrue(packed.contentEquals(2, null));
+
+        packed.replace(1, 3, Arrays.<CharSequence>asList("Wuhan"));
+        assertContentEquals(Arrays.<CharSequence>asList("Chengdu", "Wuhan"), packed);
+    }
+
+    private static void assertContentEquals(List<CharSequence> expected, PackedEntryList actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+        }
+    }
+
+    /**
+     * 模拟带有样式的文字，不能只保存字符
+     */
+    static class StyledText implements CharSequence {
+        private final String mText;
+
+        StyledText(String text) {
+            mText = text;
+        }
+
+        @Override
+        public int length() {
+            return mText.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return mText.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return mText.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return mText;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.cncoderx.wheelview;
+
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试分页数据源在后台线程中读取页，读取完成后只在可见时重绘
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class PagedWheelAdapterTest {
+    private static final int PAGE_SIZE = 50;
+
+    private ExecutorService mExecutor;
+    private FakePageSource mSource;
+    private PagedWheelAdapter mAdapter;
+    private TestWheelView mWheelView;
+
+    @Before
+    public void setUp() throws Exception {
+        mExecutor = Executors.newSingleThreadExecutor();
+        mSource = new FakePageSource(20);
+        mAdapter = new PagedWheelAdapter(mSource, 10000, PAGE_SIZE, 4, mExecutor);
+        mWheelView = new TestWheelView(RuntimeEnvironment.application);
+        mWheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.setAdapter(mAdapter);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void getItem_returnsPlaceholderUntilLoaded() throws Exception {
+        assertEquals("…", mAdapter.getItem(0));
+        assertFalse(mAdapter.isLoaded(0));
+
+        awaitLoads();
+        assertTrue(mAdapter.isLoaded(0));
+        assertEquals("item 0", mAdapter.getItem(0));
+        assertEquals("item 49", mAdapter.getItem(49));
+    }
+
+    @Test
+    public void currentIndex_prefetchesNeighbourPages() throws Exception {
+        awaitLoads();
+        mWheelView.setCurrentIndex(5000);
+        awaitLoads();
+
+        assertTrue(mAdapter.isLoaded(4950));
+        assertTrue(mAdapter.isLoaded(5000));
+        assertTrue(mAdapter.isLoaded(5050));
+        // 最多保留4页，最早读取的第一页已经被淘汰
+        assertFalse(mAdapter.isLoaded(0));
+    }
+
+    @Test
+    public void pageLanded_invalidatesOnlyWhenVisible() throws Exception {
+        awaitLoads();
+        mWheelView.invalidateCount = 0;
+
+        // 远离当前位置的页读取完成后不需要重绘
+        assertEquals("…", mAdapter.getItem(8000));
+        awaitLoads();
+        assertEquals("item 8000", mAdapter.getItem(8000));
+        assertEquals(0, mWheelView.invalidateCount);
+
+        mAdapter.refresh();
+        mWheelView.invalidateCount = 0;
+        mAdapter.getItem(0);
+        awaitLoads();
+        assertEquals(1, mWheelView.invalidateCount);
+    }
+
+    @Test
+    public void loadFailure_keepsPlaceholderAndRetries() throws Exception {
+        // 在当前线程中读取，异常没有被处理时会直接导致测试失败
+        final FakePageSource source = new FakePageSource(0);
+        final PagedWheelAdapter adapter = new PagedWheelAdapter(source, 1000, PAGE_SIZE, 4, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        source.setFailing(true);
+        assertEquals("…", adapter.getItem(0));
+        Robolectric.flushForegroundThreadScheduler();
+        assertFalse(adapter.isLoaded(0));
+        assertEquals(1, source.getLoadCount());
+
+        // 等待时间内重绘不会重新读取
+        source.setFailing(false);
+        assertEquals("…", adapter.getItem(0));
+        Robolectric.flushForegroundThreadScheduler();
+        assertFalse(adapter.isLoaded(0));
+        assertEquals(1, source.getLoadCount());
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(PagedWheelAdapter.RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals("…", adapter.getItem(0));
+        Robolectric.flushForegroundThreadScheduler();
+        assertTrue(adapter.isLoaded(0));
+        assertEquals("item 0", adapter.getItem(0));
+        assertEquals(2, source.getLoadCount());
+    }
+
+    @Test
+    public void visiblePagesExceedCapacity_settles() throws Exception {
+        // 每页只有4个选项，可见的选项跨越的页数超过最多保留的3页
+        final WheelSearchIndexTest.QueuedExecutor executor = new WheelSearchIndexTest.QueuedExecutor();
+        final FakePageSource source = new FakePageSource(0);
+        final PagedWheelAdapter adapter = new PagedWheelAdapter(source, 1000, 4, 3, executor);
+        final WheelView wheelView = new WheelView(RuntimeEnvironment.application);
+        wheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        wheelView.setAdapter(adapter);
+        wheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        wheelView.layout(0, 0, 480, 800);
+        wheelView.setCurrentIndex(500);
+
+        final CountingCanvas canvas = new CountingCanvas();
+        for (int i = 0; i < 3; i++) {
+            wheelView.onDraw(canvas);
+            executor.runAll();
+            Robolectric.flushForegroundThreadScheduler();
+        }
+        final int loadCount = source.getLoadCount();
+        assertTrue(loadCount > 3);
+
+        // 静止时重绘不再读取页，可见的选项都已经读取
+        for (int i = 0; i < 8; i++) {
+            wheelView.onDraw(canvas);
+            executor.runAll();
+            Robolectric.flushForegroundThreadScheduler();
+        }
+        assertEquals(loadCount, source.getLoadCount());
+        for (int i = 495; i <= 505; i++) {
+            assertTrue(adapter.isLoaded(i));
+        }
+
+        // 当前选项变化后，超出容量的页可以被淘汰
+        wheelView.setCurrentIndex(900);
+        executor.runAll();
+        Robolectric.flushForegroundThreadScheduler();
+        assertFalse(adapter.isLoaded(495));
+    }
+
+    /**
+     * 等待后台线程读取完成，再执行主线程中的回调
+     */
+    private void awaitLoads() throws Exception {
+        mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get(5, TimeUnit.SECONDS);
+        Robolectric.flushForegroundThreadScheduler();
+    }
+}
@@ -0,0 +1,21 @@
+package com.cncoderx.wheelview;
+
+import android.content.Context;
+
+/**
+ * 记录重绘请求次数的滚轮。重绘时与{@link WheelView#invalidate()}相同地丢弃静止时录制的画面，
+ * 但不调用View.invalidate()：Robolectric中的View.invalidate()会创建对象，内存分配的测试只统计滚轮本身
+ */
+class TestWheelView extends WheelView {
+    int invalidateCount;
+
+    TestWheelView(Context context) {
+        super(context);
+    }
+
+    @Override
+    public void invalidate() {
+        discardIdleCache();
+        invalidateCount++;
+    }
+}
@@ -0,0 +1,184 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 模拟滚动并逐帧绘制，预热之后的滚动和绘制过程不应该分配任何内存。
+ * Robolectric中的Matrix会记录每次变换的描述信息，因此这里只测试普通滚轮
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelAllocationTest {
+    private static final int FRAME_TIME = 16;
+    private static final int VELOCITY = 8000;
+
+    private WheelView mWheelView;
+    private CountingCanvas mCanvas;
+    private ManualFrameScheduler mFrameScheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        String[] entries = new String[1000];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = String.valueOf(i);
+        }
+        mWheelView = new TestWheelView(RuntimeEnvironment.application);
+        mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.mScroller.mFrameScheduler = mFrameScheduler;
+        mWheelView.setEntries(entries);
+        mWheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        mWheelView.layout(0, 0, 480, 800);
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void scroll_doesNotAllocateAfterWarmUp() throws Exception {
+        // 预热，使所有的类加载和缓存初始化完成
+        scrollTo(500, null);
+        scrollTo(0, null);
+
+        AllocationCounter counter = new AllocationCounter();
+        int frames = scrollTo(500, counter);
+        frames += scrollTo(0, counter);
+
+        assertTrue(frames > 10);
+        assertTrue(mCanvas.drawTextCount > 0);
+        assertEquals(0, counter.getAllocatedBytes());
+    }
+
+    @Test
+    public void cyclicScroll_doesNotAllocateAfterWarmUp() throws Exception {
+        mWheelView.setCyclic(true);
+        scrollTo(-500, null);
+        scrollTo(0, null);
+
+        AllocationCounter counter = new AllocationCounter();
+        scrollTo(-500, counter);
+        scrollTo(0, counter);
+
+        assertEquals(0, counter.getAllocatedBytes());
+    }
+
+    @Test
+    public void metrics_doNotAllocateAfterWarmUp() throws Exception {
+        mWheelView.setMetricsEnabled(true);
+        scrollTo(500, null);
+        scrollTo(0, null);
+
+        AllocationCounter counter = new AllocationCounter();
+        scrollTo(500, counter);
+        scrollTo(0, counter);
+
+        assertEquals(0, counter.getAllocatedBytes());
+
+        WheelMetrics metrics = mWheelView.getMetrics();
+        assertTrue(metrics.getFrameCount() > 10);
+        mCanvas.reset();
+        mWheelView.onDraw(mCanvas);
+        assertTrue(metrics.getItemCount() > 0);
+        assertEquals(mCanvas.saveCount, metrics.getSaveCount());
+        assertEquals(mCanvas.clipCount, metrics.getClipCount());
+    }
+
+    @Test
+    public void fling_doesNotAllocateAfterWarmUp() throws Exception {
+        // 速度超过阈值的一半时降低绘制质量，覆盖降级绘制的分支
+        mWheelView.setLevelOfDetailVelocity(VELOCITY);
+        mWheelView.setMetricsEnabled(true);
+        fling(-VELOCITY, null);
+        fling(VELOCITY, null);
+
+        AllocationCounter counter = new AllocationCounter();
+        int frames = fling(-VELOCITY, counter);
+        frames += fling(VELOCITY, counter);
+
+        assertTrue(frames > 10);
+        assertEquals(0, counter.getAllocatedBytes());
+    }
+
+    @Test
+    public void numericAdapter_doesNotAllocateAfterWarmUp() throws Exception {
+        mWheelView.setAdapter(new NumericWheelAdapter(0, 59));
+        scrollTo(59, null);
+        scrollTo(0, null);
+
+        AllocationCounter counter = new AllocationCounter();
+        scrollTo(59, counter);
+        scrollTo(0, counter);
+
+        assertEquals(0, counter.getAllocatedBytes());
+    }
+
+    @Test
+    public void itemRenderer_doesNotAllocateAfterWarmUp() throws Exception {
+        final int[] drawCount = new int[1];
+        mWheelView.setItemRenderer(new ItemRenderer() {
+            @Override
+            public void drawItem(Canvas canvas, ItemRenderState state) {
+                final CharSequence text = state.getText();
+                canvas.drawText(text, 0, text.length(), state.getCenterX(), state.getBaseline(), state.getPaint());
+                drawCount[0]++;
+            }
+        });
+        scrollTo(500, null);
+        scrollTo(0, null);
+
+        AllocationCounter counter = new AllocationCounter();
+        scrollTo(500, counter);
+        scrollTo(0, counter);
+
+        assertTrue(drawCount[0] > 0);
+        assertEquals(0, counter.getAllocatedBytes());
+    }
+
+    /**
+     * 以动画的方式滚动到指定位置，并逐帧绘制直到滚动结束
+     *
+     * @return 绘制的帧数
+     */
+    private int scrollTo(int index, AllocationCounter counter) {
+        mWheelView.setCurrentIndex(index, true);
+        return runFrames(counter);
+    }
+
+    private int runFrames(AllocationCounter counter) {
+        int frames = 0;
+        while (mFrameScheduler.hasPendingFrame() && frames < 1000) {
+            Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_TIME, TimeUnit.MILLISECONDS);
+            if (counter != null) counter.begin();
+            mFrameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(FRAME_TIME));
+            mWheelView.onDraw(mCanvas);
+            if (counter != null) counter.end();
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * 以指定的速度滑行，并逐帧绘制直到滑行和调整位置的动画结束
+     *
+     * @return 绘制的帧数
+     */
+    private int fling(int velocity, AllocationCounter counter) {
+        if (counter != null) counter.begin();
+        mWheelView.mScroller.startFling(velocity);
+        if (counter != null) counter.end();
+        return runFrames(counter);
+    }
+}
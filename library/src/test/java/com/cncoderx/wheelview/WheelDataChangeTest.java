@@ -0,0 +1,95 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 测试数据源变化后滚轮保持选中的选项，并且只在可见的选项变化时重绘
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelDataChangeTest {
+    private TestWheelView mWheelView;
+    private NumericWheelAdapter mAdapter;
+    private int mChangedCount;
+
+    @Before
+    public void setUp() throws Exception {
+        mWheelView = new TestWheelView(RuntimeEnvironment.application);
+        mWheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        mAdapter = new NumericWheelAdapter(1, 31);
+        mWheelView.setAdapter(mAdapter);
+        mWheelView.setOnWheelChangedListener(new OnWheelChangedListener() {
+            @Override
+            public void onChanged(WheelView view, int oldIndex, int newIndex) {
+                mChangedCount++;
+            }
+        });
+    }
+
+    @Test
+    public void removeAfterSelection_keepsIndex() throws Exception {
+        mWheelView.setCurrentIndex(14);
+        mChangedCount = 0;
+        mWheelView.invalidateCount = 0;
+
+        mAdapter.setRange(1, 28);
+
+        assertEquals(14, mWheelView.getCurrentIndex());
+        assertEquals(0, mChangedCount);
+        // 删除的选项不在可见范围内，不需要重绘
+        assertEquals(0, mWheelView.invalidateCount);
+    }
+
+    @Test
+    public void removeSelection_clampsIndex() throws Exception {
+        mWheelView.setCurrentIndex(30);
+        mChangedCount = 0;
+
+        mAdapter.setRange(1, 28);
+
+        assertEquals(27, mWheelView.getCurrentIndex());
+        assertEquals(27 * mWheelView.mItemHeight, mWheelView.mScroller.getScrollOffset());
+        assertEquals(1, mChangedCount);
+        assertEquals(28, mWheelView.getCurrentValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removeAll_currentValueThrows() throws Exception {
+        mAdapter.setRange(1, 0);
+
+        // 没有选项时设置数值不做任何操作
+        mWheelView.setCurrentValue(1);
+        assertEquals(-1, mWheelView.getCurrentIndex());
+        mWheelView.getCurrentValue();
+    }
+
+    @Test
+    public void insertBeforeSelection_keepsSelectedItem() throws Exception {
+        mWheelView.setEntries("b", "c", "d");
+        mWheelView.setCurrentIndex(1);
+
+        ((ListWheelAdapter) mWheelView.getAdapter()).replace(0, 0, Collections.singletonList("a"));
+
+        assertEquals(2, mWheelView.getCurrentIndex());
+        assertEquals("c", mWheelView.getItem(mWheelView.getCurrentIndex()));
+    }
+
+    @Test
+    public void setEntries_doesNotReset() throws Exception {
+        mWheelView.setEntries("1", "2", "3", "4", "5");
+        mWheelView.setCurrentIndex(3);
+
+        mWheelView.setEntries("1", "2", "3", "4", "5", "6");
+
+        assertEquals(3, mWheelView.getCurrentIndex());
+    }
+}
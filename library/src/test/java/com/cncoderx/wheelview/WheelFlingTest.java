@@ -0,0 +1,73 @@
+package com.cncoderx.wheelview;
+
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试停靠在选项上的滑行曲线
+ */
+public class WheelFlingTest {
+    private static final int ITEM_HEIGHT = 40;
+
+    private WheelFling mFling;
+
+    @Before
+    public void setUp() throws Exception {
+        mFling = new WheelFling(160, .015f);
+    }
+
+    @Test
+    public void target_roundsNaturalEndToItem() throws Exception {
+        final float velocity = 3000;
+        final int target = mFling.getTargetOffset(10, velocity, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        assertEquals(0, target % ITEM_HEIGHT);
+        assertTrue(Math.abs(10 + mFling.getNaturalDistance(velocity) - target) <= ITEM_HEIGHT / 2);
+
+        // 超出边界时停靠在边界上
+        assertEquals(400, mFling.getTargetOffset(380, velocity, ITEM_HEIGHT, 0, 400));
+        assertEquals(0, mFling.getTargetOffset(20, -velocity, ITEM_HEIGHT, 0, 400));
+    }
+
+    @Test
+    public void curve_startsAtReleaseVelocity() throws Exception {
+        final float velocity = 2000;
+        assertTrue(mFling.start(0, velocity, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE, 0));
+
+        // 第一帧的平均速度接近手指离开时的速度
+        mFling.computeOffset(16);
+        final float initialVelocity = mFling.getCurrOffset() * 1000f / 16;
+        assertEquals(velocity, initialVelocity, velocity * .1f);
+    }
+
+    @Test
+    public void curve_landsOnTargetOnce() throws Exception {
+        mFling.setFriction(.03f);
+        mFling.setInterpolator(new LinearInterpolator());
+        assertTrue(mFling.start(5, -1500, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE, 0));
+
+        final int target = mFling.getFinalOffset();
+        assertEquals(0, target % ITEM_HEIGHT);
+        int offset = 5;
+        long time = 0;
+        while (mFling.computeOffset(time += 16)) {
+            // 单调地向目标移动，不会越过目标再返回
+            assertTrue(mFling.getCurrOffset() <= offset);
+            assertTrue(mFling.getCurrOffset() >= target);
+            offset = mFling.getCurrOffset();
+        }
+        assertEquals(target, mFling.getCurrOffset());
+        assertTrue(mFling.isFinished());
+    }
+
+    @Test
+    public void alignedTarget_skipsFling() throws Exception {
+        assertFalse(mFling.start(0, 1, ITEM_HEIGHT, Integer.MIN_VALUE, Integer.MAX_VALUE, 0));
+        assertFalse(mFling.start(0, -3000, ITEM_HEIGHT, 0, 400, 0));
+    }
+}
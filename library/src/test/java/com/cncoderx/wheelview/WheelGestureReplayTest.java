@@ -0,0 +1,287 @@
+package com.cncoderx.wheelview;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 回放预先编写的手势，逐帧推进滚动并绘制到统计画布上，统计每个场景的帧数、每帧的绘制操作、
+ * 回调次数以及耗时。除耗时以外的数据与运行环境无关，结果保存在build/reports/gesture-replay/results.txt，
+ * 修改触摸、滚动或绘制的代码时与benchmark/gesture-baseline.txt对比
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelGestureReplayTest {
+    private static final int FRAME_TIME = 16;
+    private static final int MAX_FRAMES = 2000;
+    private static final int NO_INPUT = -1;
+    private static final float TOUCH_Y = 400;
+
+    private static final String[] SCENARIOS = {
+            "slowDrag", "fastFling", "repeatedFlick", "programmatic"
+    };
+
+    private ReplayView mView;
+    private ManualFrameScheduler mFrameScheduler;
+    private CountingCanvas mCanvas;
+    private float mTouchY;
+
+    // 当前场景的统计数据
+    private int mFrameCount;
+    private int mOperationCount;
+    private int mMaxOperationCount;
+    private int mItemDrawCount;
+    private int mChangedCount;
+    private int mStateChangedCount;
+    private int mSettledCount;
+
+    @Test
+    public void replay() throws Exception {
+        final StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "%-12s %-14s %7s %9s %7s %11s %8s %6s %8s %9s%n",
+                "View", "Scenario", "Frames", "Ops/frame", "MaxOps", "Items/frame",
+                "Changed", "State", "Settled", "Wall(ms)"));
+
+        final ReplayView[] views = {
+                new ReplayWheelView(RuntimeEnvironment.application),
+                new ReplayWheel3DView(RuntimeEnvironment.application)
+        };
+        for (ReplayView view : views) {
+            prepare(view);
+            for (String scenario : SCENARIOS) {
+                // 预热一次，使类加载和缓存初始化不计入耗时
+                run(scenario);
+                final long wallTime = run(scenario);
+
+                final WheelView wheelView = (WheelView) view;
+                assertTrue(scenario, mFrameCount > 0);
+                assertTrue(scenario, mSettledCount > 0);
+                assertEquals(scenario, 0, wheelView.mScroller.getScrollOffset() % wheelView.mItemHeight);
+
+                report.append(String.format(Locale.US, "%-12s %-14s %7d %9.1f %7d %11.1f %8d %6d %8d %9.2f%n",
+                        wheelView.getClass().getSuperclass().getSimpleName(), scenario,
+                        mFrameCount, (float) mOperationCount / mFrameCount, mMaxOperationCount,
+                        (float) mItemDrawCount / mFrameCount, mChangedCount, mStateChangedCount,
+                        mSettledCount, wallTime / 1e6f));
+            }
+        }
+        writeReport(report.toString());
+    }
+
+    private void prepare(ReplayView view) {
+        String[] entries = new String[1000];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = String.valueOf(i);
+        }
+        final WheelView wheelView = (WheelView) view;
+        mView = view;
+        mFrameScheduler = new ManualFrameScheduler();
+        mCanvas = new CountingCanvas();
+        wheelView.mScroller.mFrameScheduler = mFrameScheduler;
+        wheelView.setEntries(entries);
+        wheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        wheelView.layout(0, 0, 480, 800);
+        new FrameLayout(RuntimeEnvironment.application).addView(wheelView);
+
+        wheelView.setOnWheelChangedListener(new OnWheelChangedListener() {
+            @Override
+            public void onChanged(WheelView view, int oldIndex, int newIndex) {
+                mChangedCount++;
+            }
+        });
+        wheelView.setOnWheelScrollStateListener(new OnWheelScrollStateListener() {
+            @Override
+            public void onScrollStateChanged(WheelView view, int scrollState) {
+                mStateChangedCount++;
+            }
+
+            @Override
+            public void onSelectionSettled(WheelView view, int index) {
+                mSettledCount++;
+            }
+        });
+    }
+
+    /**
+     * 从第一个选项开始回放一个场景，直到滚动结束
+     *
+     * @return 耗时（纳秒）
+     */
+    private long run(String scenario) {
+        final WheelView wheelView = (WheelView) mView;
+        wheelView.setCurrentIndex(0);
+        runUntilIdle();
+        mFrameCount = 0;
+        mOperationCount = 0;
+        mMaxOperationCount = 0;
+        mItemDrawCount = 0;
+        mChangedCount = 0;
+        mStateChangedCount = 0;
+        mSettledCount = 0;
+
+        final long startTime = System.nanoTime();
+        if ("slowDrag".equals(scenario)) {
+            // 每帧移动不足两个像素，最后停顿几帧再抬起
+            drag(60, 1.5f);
+            for (int i = 0; i < 3; i++) {
+                frame(MotionEvent.ACTION_MOVE, 0);
+            }
+            frame(MotionEvent.ACTION_UP, 0);
+        } else if ("fastFling".equals(scenario)) {
+            drag(6, 40);
+            frame(MotionEvent.ACTION_UP, 0);
+        } else if ("repeatedFlick".equals(scenario)) {
+            // 每次轻扫都打断上一次的滑行
+            for (int i = 0; i < 5; i++) {
+                drag(4, 30);
+                frame(MotionEvent.ACTION_UP, 0);
+                frames(10);
+            }
+        } else if ("programmatic".equals(scenario)) {
+            wheelView.setCurrentIndex(50, true);
+            runUntilIdle();
+            wheelView.setCurrentIndex(10, true);
+            frames(5);
+            wheelView.setCurrentIndex(80, true);
+        }
+        runUntilIdle();
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * 按下后每帧向上移动一次
+     */
+    private void drag(int moveCount, float distance) {
+        mTouchY = TOUCH_Y;
+        frame(MotionEvent.ACTION_DOWN, 0);
+        for (int i = 0; i < moveCount; i++) {
+            frame(MotionEvent.ACTION_MOVE, -distance);
+        }
+    }
+
+    private void frames(int count) {
+        for (int i = 0; i < count; i++) {
+            frame(NO_INPUT, 0);
+        }
+    }
+
+    private void runUntilIdle() {
+        int frames = 0;
+        while ((mFrameScheduler.hasPendingFrame() || mView.isInvalidated()) && frames++ < MAX_FRAMES) {
+            frame(NO_INPUT, 0);
+        }
+    }
+
+    /**
+     * 模拟一帧：先分发这一帧收到的触摸事件，然后执行帧回调，需要重绘时绘制到统计画布上
+     */
+    private void frame(int action, float distance) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_TIME, TimeUnit.MILLISECONDS);
+        if (action != NO_INPUT) {
+            mTouchY += distance;
+            final long now = SystemClock.uptimeMillis();
+            final MotionEvent event = MotionEvent.obtain(now, now, action, 0, mTouchY, 0);
+            ((View) mView).onTouchEvent(event);
+            event.recycle();
+        }
+        mFrameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(FRAME_TIME));
+        if (mView.isInvalidated()) {
+            mView.clearInvalidated();
+            mCanvas.reset();
+            ((WheelView) mView).onDraw(mCanvas);
+            final int operationCount = mCanvas.getOperationCount();
+            mFrameCount++;
+            mOperationCount += operationCount;
+            mMaxOperationCount = Math.max(mMaxOperationCount, operationCount);
+            mItemDrawCount += mCanvas.drawTextCount + mCanvas.drawBitmapCount;
+        }
+    }
+
+    private static void writeReport(String report) throws IOException {
+        final File file = new File("build/reports/gesture-replay/results.txt");
+        file.getParentFile().mkdirs();
+        final FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(report);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 记录滚轮是否请求了重绘
+     */
+    interface ReplayView {
+        boolean isInvalidated();
+
+        void clearInvalidated();
+    }
+
+    static class ReplayWheelView extends WheelView implements ReplayView {
+        private boolean isInvalidated;
+
+        ReplayWheelView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            super.invalidate();
+            isInvalidated = true;
+        }
+
+        @Override
+        public boolean isInvalidated() {
+            return isInvalidated;
+        }
+
+        @Override
+        public void clearInvalidated() {
+            isInvalidated = false;
+        }
+    }
+
+    static class ReplayWheel3DView extends Wheel3DView implements ReplayView {
+        private boolean isInvalidated;
+
+        ReplayWheel3DView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            super.invalidate();
+            isInvalidated = true;
+        }
+
+        @Override
+        public boolean isInvalidated() {
+            return isInvalidated;
+        }
+
+        @Override
+        public void clearInvalidated() {
+            isInvalidated = false;
+        }
+    }
+}
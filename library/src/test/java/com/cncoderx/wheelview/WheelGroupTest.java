@@ -0,0 +1,137 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试联动滚轮在同一帧内统一更新
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelGroupTest {
+    private static final int FRAME_TIME = 16;
+
+    private WheelGroup mGroup;
+    private ManualFrameScheduler mFrameScheduler;
+    private WheelView mProvince, mCity, mDistrict;
+    private NumericWheelAdapter mCityAdapter, mDistrictAdapter;
+    private int mCityUpdates, mDistrictUpdates;
+
+    @Before
+    public void setUp() throws Exception {
+        mProvince = new WheelView(RuntimeEnvironment.application);
+        mProvince.setAdapter(new NumericWheelAdapter(1, 100));
+        mCity = new WheelView(RuntimeEnvironment.application);
+        mCityAdapter = new NumericWheelAdapter(1, 1);
+        mCity.setAdapter(mCityAdapter);
+        mDistrict = new WheelView(RuntimeEnvironment.application);
+        mDistrictAdapter = new NumericWheelAdapter(1, 1);
+        mDistrict.setAdapter(mDistrictAdapter);
+
+        mGroup = new WheelGroup();
+        mFrameScheduler = new ManualFrameScheduler();
+        mGroup.mFrameScheduler = mFrameScheduler;
+    }
+
+    @Test
+    public void chain_updatesInOneFrame() throws Exception {
+        addCityDependency();
+        addDistrictDependency();
+
+        nextFrame();
+        assertEquals(1, mCityUpdates);
+        assertEquals(1, mDistrictUpdates);
+
+        mProvince.setCurrentIndex(9);
+        assertTrue(mFrameScheduler.hasPendingFrame());
+        assertEquals(1, mCityUpdates);
+
+        nextFrame();
+        assertEquals(2, mCityUpdates);
+        assertEquals(10, mCityAdapter.getCount());
+        assertEquals(11, mDistrictAdapter.getCount());
+        assertFalse(mFrameScheduler.hasPendingFrame());
+    }
+
+    @Test
+    public void fling_updatesAtMostOncePerFrame() throws Exception {
+        addCityDependency();
+        nextFrame();
+        mCityUpdates = 0;
+
+        mProvince.setCurrentIndex(99, true);
+        int frames = 0;
+        while (mFrameScheduler.hasPendingFrame() && frames < 1000) {
+            nextFrame();
+            frames++;
+        }
+
+        assertTrue(mCityUpdates > 0);
+        assertTrue(mCityUpdates <= frames);
+        assertTrue(mCityUpdates < 99);
+        assertEquals(100, mCityAdapter.getCount());
+    }
+
+    @Test
+    public void reversedDeclaration_updatesUpstreamFirst() throws Exception {
+        addDistrictDependency();
+        addCityDependency();
+        nextFrame();
+        assertFalse(mFrameScheduler.hasPendingFrame());
+        mCityUpdates = mDistrictUpdates = 0;
+
+        mProvince.setCurrentIndex(4);
+        nextFrame();
+        assertEquals(1, mCityUpdates);
+        assertEquals(1, mDistrictUpdates);
+        assertEquals(6, mDistrictAdapter.getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void circularDependency_throws() throws Exception {
+        addCityDependency();
+        mGroup.addDependency(mProvince, new WheelGroup.Updater() {
+            @Override
+            public void onUpdate(WheelView target) {
+            }
+        }, mCity);
+    }
+
+    private void addCityDependency() {
+        mGroup.addDependency(mCity, new WheelGroup.Updater() {
+            @Override
+            public void onUpdate(WheelView target) {
+                mCityUpdates++;
+                mCityAdapter.setRange(1, mProvince.getCurrentValue());
+                // 切换省份后选中第一个城市
+                target.setCurrentIndex(0);
+            }
+        }, mProvince);
+    }
+
+    private void addDistrictDependency() {
+        mGroup.addDependency(mDistrict, new WheelGroup.Updater() {
+            @Override
+            public void onUpdate(WheelView target) {
+                mDistrictUpdates++;
+                mDistrictAdapter.setRange(1, mCityAdapter.getCount() + 1);
+            }
+        }, mCity);
+    }
+
+    private void nextFrame() {
+        Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_TIME, TimeUnit.MILLISECONDS);
+        mFrameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(FRAME_TIME));
+    }
+}
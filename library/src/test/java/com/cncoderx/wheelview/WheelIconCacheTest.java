@@ -0,0 +1,229 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Bitmap;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试在后台线程中解码并按字节数限制容量的图标缓存
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelIconCacheTest {
+    private static final int ICON_SIZE = 32;
+    private static final int ICON_BYTES = ICON_SIZE * ICON_SIZE * 4;
+
+    private WheelSearchIndexTest.QueuedExecutor mExecutor;
+    private FlagLoader mLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        mExecutor = new WheelSearchIndexTest.QueuedExecutor();
+        mLoader = new FlagLoader();
+    }
+
+    @Test
+    public void get_decodesInBackgroundAndInvalidates() throws Exception {
+        final WheelIconCache cache = new WheelIconCache(ICON_BYTES * 10, mExecutor);
+        final TestWheelView wheelView = new TestWheelView(RuntimeEnvironment.application);
+
+        assertNull(cache.get("cn", ICON_SIZE, mLoader, wheelView));
+        assertNull(cache.get("cn", ICON_SIZE, mLoader, wheelView));
+        assertEquals(0, mLoader.mLoadCount);
+
+        mLoader.isDecodingAllowed = true;
+        mExecutor.runAll();
+        // 同一个图标只解码一次
+        assertEquals(1, mLoader.mLoadCount);
+        assertEquals(1, wheelView.invalidateCount);
+
+        assertNotNull(cache.get("cn", ICON_SIZE, mLoader, wheelView));
+        assertEquals(ICON_BYTES, cache.size());
+    }
+
+    @Test
+    public void loadFailure_isNotRetriedWhileCached() throws Exception {
+        final WheelIconCache cache = new WheelIconCache(ICON_BYTES * 10, mExecutor);
+        final TestWheelView wheelView = new TestWheelView(RuntimeEnvironment.application);
+        final FailingLoader loader = new FailingLoader(null);
+
+        assertNull(cache.get("cn", ICON_SIZE, loader, wheelView));
+        mExecutor.runAll();
+        // 解码失败时不重新绘制，之后获取也不会再次解码
+        assertEquals(0, wheelView.invalidateCount);
+        assertNull(cache.get("cn", ICON_SIZE, loader, wheelView));
+        assertEquals(0, mExecutor.size());
+        assertEquals(1, loader.mLoadCount);
+        assertEquals(0, cache.size());
+
+        cache.clear();
+        assertNull(cache.get("cn", ICON_SIZE, loader, wheelView));
+        mExecutor.runAll();
+        assertEquals(2, loader.mLoadCount);
+    }
+
+    @Test
+    public void loaderThrows_isTreatedAsFailure() throws Exception {
+        final WheelIconCache cache = new WheelIconCache(ICON_BYTES * 10, mExecutor);
+        final FailingLoader throwingLoader = new FailingLoader(new IllegalStateException("corrupt image"));
+        final FailingLoader oomLoader = new FailingLoader(new OutOfMemoryError("bitmap too large"));
+
+        // 异常没有被处理时会直接导致测试失败
+        assertNull(cache.get("cn", ICON_SIZE, throwingLoader, null));
+        assertNull(cache.get("fr", ICON_SIZE, oomLoader, null));
+        mExecutor.runAll();
+
+        assertNull(cache.get("cn", ICON_SIZE, throwingLoader, null));
+        assertNull(cache.get("fr", ICON_SIZE, oomLoader, null));
+        assertEquals(0, mExecutor.size());
+        assertEquals(1, throwingLoader.mLoadCount);
+        assertEquals(1, oomLoader.mLoadCount);
+
+        // 其他图标不受影响
+        mLoader.isDecodingAllowed = true;
+        cache.get("jp", ICON_SIZE, mLoader, null);
+        mExecutor.runAll();
+        assertNotNull(cache.get("jp", ICON_SIZE, mLoader, null));
+    }
+
+    @Test
+    public void scaleToFit_shrinksLargeBitmaps() throws Exception {
+        final Bitmap bitmap = Bitmap.createBitmap(ICON_SIZE * 4, ICON_SIZE * 2, Bitmap.Config.ARGB_8888);
+        final Bitmap scaled = WheelIconCache.scaleToFit(bitmap, ICON_SIZE);
+        assertEquals(ICON_SIZE, scaled.getWidth());
+        assertEquals(ICON_SIZE / 2, scaled.getHeight());
+        assertSame(bitmap, WheelIconCache.scaleToFit(bitmap, ICON_SIZE * 4));
+    }
+
+    @Test
+    public void get_evictsLeastRecentlyUsed() throws Exception {
+        final WheelIconCache cache = new WheelIconCache(ICON_BYTES * 2, mExecutor);
+        mLoader.isDecodingAllowed = true;
+        cache.get("cn", ICON_SIZE, mLoader, null);
+        cache.get("fr", ICON_SIZE, mLoader, null);
+        mExecutor.runAll();
+        assertNotNull(cache.get("cn", ICON_SIZE, mLoader, null));
+
+        cache.get("jp", ICON_SIZE, mLoader, null);
+        mExecutor.runAll();
+        assertEquals(ICON_BYTES * 2, cache.size());
+        assertNotNull(cache.get("cn", ICON_SIZE, mLoader, null));
+        assertNull(cache.get("fr", ICON_SIZE, mLoader, null));
+    }
+
+    @Test
+    public void renderer_neverDecodesWhileDrawing() throws Exception {
+        final String[] countries = new String[250];
+        for (int i = 0; i < countries.length; i++) {
+            countries[i] = "Country " + i;
+        }
+        final WheelIconCache cache = new WheelIconCache(ICON_BYTES * 20, mExecutor);
+        final WheelView wheelView = new WheelView(RuntimeEnvironment.application);
+        final ManualFrameScheduler frameScheduler = new ManualFrameScheduler();
+        wheelView.mScroller.mFrameScheduler = frameScheduler;
+        wheelView.setIdleCacheEnabled(false);
+        wheelView.setEntries(countries);
+        wheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        wheelView.layout(0, 0, 480, 800);
+        final IconItemRenderer renderer = new IconItemRenderer(mLoader, cache);
+        renderer.setIconSize(ICON_SIZE);
+        wheelView.setItemRenderer(renderer);
+
+        final CountingCanvas canvas = new CountingCanvas();
+        wheelView.onDraw(canvas);
+        // 图标尚未解码时绘制占位色块
+        assertEquals(0, canvas.drawBitmapCount);
+        assertTrue(canvas.drawShapeCount > wheelView.mLayoutEngine.getVisibleCount());
+
+        wheelView.setCurrentIndex(countries.length - 1, true);
+        int frames = 0;
+        while (frameScheduler.hasPendingFrame() && frames < 1000) {
+            Robolectric.getForegroundThreadScheduler().advanceBy(16, TimeUnit.MILLISECONDS);
+            frameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(16));
+            wheelView.onDraw(canvas);
+            if (++frames % 4 == 0) {
+                // 后台线程每隔几帧完成一批解码
+                mLoader.isDecodingAllowed = true;
+                mExecutor.runAll();
+                mLoader.isDecodingAllowed = false;
+            }
+            assertTrue(cache.size() <= cache.getMaxSize());
+        }
+        mLoader.isDecodingAllowed = true;
+        mExecutor.runAll();
+
+        canvas.reset();
+        wheelView.onDraw(canvas);
+        assertEquals(wheelView.mLayoutEngine.getVisibleCount(), canvas.drawBitmapCount);
+        assertTrue(mLoader.mLoadCount > 20);
+    }
+
+    /**
+     * 每次解码都返回null或者抛出指定的异常
+     */
+    static class FailingLoader implements WheelIconCache.IconLoader {
+        private final Throwable mError;
+        int mLoadCount;
+
+        FailingLoader(Throwable error) {
+            mError = error;
+        }
+
+        @Override
+        public Bitmap loadIcon(String key, int size) {
+            mLoadCount++;
+            if (mError instanceof RuntimeException) {
+                throw (RuntimeException) mError;
+            }
+            if (mError instanceof Error) {
+                throw (Error) mError;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 解码目标尺寸的位图，只允许在执行后台任务时解码。
+     * Robolectric缩放后的位图没有格式，无法计算字节数，因此这里不返回更大的位图
+     */
+    static class FlagLoader implements IconItemRenderer.IconSource {
+        private final String[] mKeys = new String[250];
+        boolean isDecodingAllowed;
+        int mLoadCount;
+
+        FlagLoader() {
+            for (int i = 0; i < mKeys.length; i++) {
+                mKeys[i] = "flag" + i;
+            }
+        }
+
+        @Override
+        public String getIconKey(int position) {
+            return mKeys[position];
+        }
+
+        @Override
+        public Bitmap loadIcon(String key, int size) {
+            assertTrue(isDecodingAllowed);
+            mLoadCount++;
+            return Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试滚轮静止时回放录制的画面
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelIdleCacheTest {
+    private WheelView mWheelView;
+    private ManualFrameScheduler mFrameScheduler;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() throws Exception {
+        mWheelView = new WheelView(RuntimeEnvironment.application);
+        mWheelView.setIdleCacheEnabled(true);
+        mWheelView.setAdapter(new NumericWheelAdapter(0, 99));
+        mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.mScroller.mFrameScheduler = mFrameScheduler;
+        mWheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        mWheelView.layout(0, 0, 480, 800);
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void idle_replaysRecordedFrame() throws Exception {
+        // 第一次绘制直接绘制，之后回放录制的画面
+        assertTrue(draw() > 0);
+        assertEquals(0, draw());
+        assertEquals(1, mCanvas.drawPictureCount);
+        assertEquals(0, draw());
+        assertEquals(1, mCanvas.drawPictureCount);
+    }
+
+    @Test
+    public void styleChange_discardsRecordedFrame() throws Exception {
+        draw();
+        draw();
+        mWheelView.setTextColor(Color.RED);
+        assertTrue(draw() > 0);
+        assertEquals(0, mCanvas.drawPictureCount);
+    }
+
+    @Test
+    public void paddingChange_discardsRecordedFrame() throws Exception {
+        draw();
+        draw();
+        mWheelView.setPadding(0, 40, 0, 40);
+        mWheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        assertTrue(draw() > 0);
+        assertEquals(0, mCanvas.drawPictureCount);
+    }
+
+    @Test
+    public void partialInvalidate_discardsRecordedFrame() throws Exception {
+        draw();
+        draw();
+        mWheelView.invalidate(new Rect(0, 0, 10, 10));
+        assertTrue(draw() > 0);
+
+        draw();
+        mWheelView.invalidate(0, 0, 10, 10);
+        assertTrue(draw() > 0);
+
+        draw();
+        mWheelView.postInvalidate();
+        assertTrue(draw() > 0);
+        assertEquals(0, mCanvas.drawPictureCount);
+    }
+
+    @Test
+    public void scrolling_drawsDirectly() throws Exception {
+        draw();
+        draw();
+        mWheelView.setCurrentIndex(10, true);
+        assertTrue(draw() > 0);
+        assertTrue(draw() > 0);
+        assertEquals(0, mCanvas.drawPictureCount);
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        assertFalse(new WheelView(RuntimeEnvironment.application).isIdleCacheEnabled());
+    }
+
+    @Test
+    public void disabled_drawsDirectly() throws Exception {
+        mWheelView.setIdleCacheEnabled(false);
+        draw();
+        assertTrue(draw() > 0);
+        assertEquals(0, mCanvas.drawPictureCount);
+    }
+
+    /**
+     * @return 直接绘制的文字数量
+     */
+    private int draw() {
+        mCanvas.reset();
+        mWheelView.onDraw(mCanvas);
+        return mCanvas.drawTextCount;
+    }
+}
@@ -0,0 +1,120 @@
+package com.cncoderx.wheelview;
+
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试由自定义渲染器绘制选项的内容
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelItemRendererTest {
+    private final CountingCanvas mCanvas = new CountingCanvas();
+
+    @Test
+    public void renderer_drawsEachClippedRegion() throws Exception {
+        final WheelView wheelView = prepare(new WheelView(RuntimeEnvironment.application));
+        final RecordingRenderer renderer = new RecordingRenderer(wheelView);
+        wheelView.setItemRenderer(renderer);
+        // 单次绘制不适用于自定义渲染器
+        wheelView.setSinglePassEnabled(true);
+        scrollBy(wheelView, wheelView.mItemHeight / 3);
+
+        mCanvas.reset();
+        wheelView.onDraw(mCanvas);
+        final int visibleCount = wheelView.mLayoutEngine.getVisibleCount();
+        assertEquals(0, mCanvas.drawTextCount);
+        // 与分界线相交的选项在两侧各绘制一次
+        assertTrue(renderer.mDrawCount > visibleCount);
+        assertTrue(renderer.mSelectedCount >= 2);
+        assertEquals(renderer.mDrawCount, mCanvas.clipCount);
+    }
+
+    @Test
+    public void renderer_bypassesBitmapCache() throws Exception {
+        final Wheel3DView wheelView = prepare(new Wheel3DView(RuntimeEnvironment.application));
+        wheelView.setBitmapCacheEnabled(true);
+        final RecordingRenderer renderer = new RecordingRenderer(wheelView);
+        wheelView.setItemRenderer(renderer);
+
+        mCanvas.reset();
+        wheelView.onDraw(mCanvas);
+        assertEquals(0, mCanvas.drawTextCount);
+        assertEquals(0, mCanvas.drawBitmapCount);
+        assertEquals(wheelView.mLayoutEngine.getVisibleCount(), renderer.mDrawCount);
+        assertEquals(1, renderer.mSelectedCount);
+
+        // 恢复绘制文字
+        wheelView.setItemRenderer(null);
+        mCanvas.reset();
+        wheelView.onDraw(mCanvas);
+        assertTrue(mCanvas.drawTextCount + mCanvas.drawBitmapCount > 0);
+    }
+
+    private static <T extends WheelView> T prepare(T wheelView) {
+        wheelView.setAdapter(new NumericWheelAdapter(0, 99));
+        wheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        wheelView.setIdleCacheEnabled(false);
+        wheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        wheelView.layout(0, 0, 480, 800);
+        new FrameLayout(RuntimeEnvironment.application).addView(wheelView);
+        wheelView.setCurrentIndex(10, false);
+        return wheelView;
+    }
+
+    /**
+     * 拖动滚轮，停在两个选项之间，使选项与分界线相交
+     */
+    private static void scrollBy(WheelView wheelView, int distance) {
+        final long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 0, 400, 0);
+        wheelView.onTouchEvent(event);
+        event.recycle();
+        event = MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, 0, 400 - distance, 0);
+        wheelView.onTouchEvent(event);
+        event.recycle();
+    }
+
+    /**
+     * 统计绘制次数，并检查每次调用的绘制状态与裁剪区域一致
+     */
+    static class RecordingRenderer implements ItemRenderer {
+        private final WheelView mWheelView;
+        int mDrawCount;
+        int mSelectedCount;
+
+        RecordingRenderer(WheelView wheelView) {
+            mWheelView = wheelView;
+        }
+
+        @Override
+        public void drawItem(Canvas canvas, ItemRenderState state) {
+            mDrawCount++;
+            if (state.isSelected()) {
+                mSelectedCount++;
+                assertSame(mWheelView.mClipRectMiddle, state.getClipRect());
+                assertSame(mWheelView.mSelectedTextPaint, state.getPaint());
+                assertTrue(state.getSelectedFraction() > 0);
+            } else {
+                assertTrue(state.getClipRect() != mWheelView.mClipRectMiddle);
+                assertSame(mWheelView.mTextPaint, state.getPaint());
+            }
+            assertEquals(String.valueOf(state.getPosition()), state.getText().toString());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 测试前缀索引的查找和增量更新
+ */
+public class WheelKeyIndexTest {
+    private WheelKeyIndex mIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        mIndex = new WheelKeyIndex();
+        mIndex.build(new CharSequence[]{"Zürich", "Amsterdam", "Berlin", "amman", "Bern", "Zagreb"});
+    }
+
+    @Test
+    public void find_ignoresCaseAndAccents() throws Exception {
+        assertEquals(3, mIndex.find("AM"));
+        assertEquals(1, mIndex.find("ams"));
+        assertEquals(0, mIndex.find("zur"));
+        assertEquals(4, mIndex.find("Bern"));
+        assertEquals(-1, mIndex.find("x"));
+    }
+
+    @Test
+    public void find_emptyPrefixReturnsFirstKey() throws Exception {
+        assertEquals(3, mIndex.find(""));
+    }
+
+    @Test
+    public void incrementalUpdates_matchRebuild() throws Exception {
+        Random random = new Random(7);
+        List<CharSequence> entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(randomWord(random));
+        }
+        WheelKeyIndex index = new WheelKeyIndex();
+        index.build(entries.toArray(new CharSequence[entries.size()]));
+
+        for (int round = 0; round < 100; round++) {
+            int start = random.nextInt(entries.size());
+            int count = 1 + random.nextInt(5);
+            CharSequence[] words = new CharSequence[count];
+            for (int i = 0; i < count; i++) {
+                words[i] = randomWord(random);
+            }
+            switch (round % 3) {
+                case 0:
+                    entries.addAll(start, Arrays.asList(words));
+                    index.insert(start, words);
+                    break;
+                case 1:
+                    count = Math.min(count, entries.size() - start);
+                    entries.subList(start, start + count).clear();
+                    index.remove(start, count);
+                    break;
+                default:
+                    count = Math.min(count, entries.size() - start);
+                    words = Arrays.copyOf(words, count);
+                    for (int i = 0; i < count; i++) {
+                        entries.set(start + i, words[i]);
+                    }
+                    index.change(start, words);
+                    break;
+            }
+        }
+
+        WheelKeyIndex expected = new WheelKeyIndex();
+        expected.build(entries.toArray(new CharSequence[entries.size()]));
+        assertEquals(expected.size(), index.size());
+        for (char a = 'a'; a <= 'e'; a++) {
+            for (char b = 'a'; b <= 'e'; b++) {
+                String prefix = "" + a + b;
+                assertEquals(prefix, expected.find(prefix), index.find(prefix));
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[3 + random.nextInt(3)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(5));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,96 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WheelLayoutEngineTest {
+    private static final int ITEM_HEIGHT = 100;
+
+    @Test
+    public void layout_settled() throws Exception {
+        WheelLayoutEngine engine = new WheelLayoutEngine();
+        engine.configure(ITEM_HEIGHT, 5, 50, false);
+        engine.layout(10 * ITEM_HEIGHT);
+
+        // 中间选项上下各3个
+        assertEquals(6, engine.getVisibleCount());
+        assertItem(engine.getItem(0), 7, -300, ItemLayout.BAND_TOP);
+        assertItem(engine.getItem(2), 9, -100, ItemLayout.BAND_TOP);
+        assertItem(engine.getItem(3), 10, 0, ItemLayout.BAND_MIDDLE);
+        assertItem(engine.getItem(5), 12, 200, ItemLayout.BAND_BOTTOM);
+        assertEquals(1f, engine.getItem(3).getSelectedFraction(), 0);
+        assertEquals(0f, engine.getItem(2).getSelectedFraction(), 0);
+    }
+
+    @Test
+    public void layout_scrolling() throws Exception {
+        WheelLayoutEngine engine = new WheelLayoutEngine();
+        engine.configure(ITEM_HEIGHT, 5, 50, false);
+        engine.layout(10 * ITEM_HEIGHT + 30);
+
+        assertEquals(7, engine.getVisibleCount());
+        assertItem(engine.getItem(2), 9, -130, ItemLayout.BAND_TOP);
+        assertItem(engine.getItem(3), 10, -30, ItemLayout.BAND_CROSS_TOP);
+        assertItem(engine.getItem(4), 11, 70, ItemLayout.BAND_CROSS_BOTTOM);
+        assertEquals(.7f, engine.getItem(3).getSelectedFraction(), 1e-6f);
+        assertEquals(.3f, engine.getItem(4).getSelectedFraction(), 1e-6f);
+        assertEquals(70f, engine.getItem(4).getTranslateY(), 0);
+        assertEquals(255, engine.getItem(4).getAlpha());
+    }
+
+    @Test
+    public void layout_skipsItemsOutOfRange() throws Exception {
+        WheelLayoutEngine engine = new WheelLayoutEngine();
+        engine.configure(ITEM_HEIGHT, 5, 50, false);
+        engine.layout(0);
+
+        assertEquals(3, engine.getVisibleCount());
+        assertItem(engine.getItem(0), 0, 0, ItemLayout.BAND_MIDDLE);
+    }
+
+    @Test
+    public void layout_cyclic() throws Exception {
+        WheelLayoutEngine engine = new WheelLayoutEngine();
+        engine.configure(ITEM_HEIGHT, 5, 50, true);
+        engine.layout(-ITEM_HEIGHT - 40);
+
+        assertEquals(7, engine.getVisibleCount());
+        ItemLayout item = engine.getItem(4);
+        assertEquals(-1, item.getIndex());
+        assertEquals(49, item.getPosition());
+        assertEquals(40, item.getRange());
+        assertEquals(ItemLayout.BAND_CROSS_BOTTOM, item.getBand());
+        assertEquals(48, engine.getItem(3).getPosition());
+        assertEquals(-60, engine.getItem(3).getRange());
+        assertEquals(0, engine.getItem(5).getPosition());
+    }
+
+    @Test
+    public void layout_projection() throws Exception {
+        WheelProjection projection = new WheelProjection();
+        WheelLayoutEngine engine = new WheelLayoutEngine();
+        engine.setProjection(projection);
+        engine.configure(ITEM_HEIGHT, 11, 50, false);
+        engine.setViewport(0, 400);
+        engine.layout(20 * ITEM_HEIGHT);
+
+        assertEquals(200, projection.getRadius());
+        for (int i = 0; i < engine.getVisibleCount(); i++) {
+            ItemLayout item = engine.getItem(i);
+            assertTrue(projection.isVisible(item.getRange()));
+            assertEquals(projection.getTranslateY(item.getRange()), item.getTranslateY(), 0);
+            assertEquals(projection.getAlpha(item.getRange()), item.getAlpha());
+        }
+        // 半径200时可见的最大距离为314，即中间选项上下各3个
+        assertEquals(7, engine.getVisibleCount());
+    }
+
+    private static void assertItem(ItemLayout item, int index, int range, int band) {
+        assertEquals(index, item.getIndex());
+        assertEquals(index, item.getPosition());
+        assertEquals(range, item.getRange());
+        assertEquals(band, item.getBand());
+    }
+}
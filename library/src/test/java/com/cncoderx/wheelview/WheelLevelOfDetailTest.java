@@ -0,0 +1,99 @@
+package com.cncoderx.wheelview;
+
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试快速滑行时降低绘制质量
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelLevelOfDetailTest {
+    private static final int FRAME_TIME = 16;
+    private static final int VELOCITY = 20000;
+
+    private final CountingCanvas mCanvas = new CountingCanvas();
+
+    @Test
+    public void fastFling_drawsCrossingItemsOnce() throws Exception {
+        final WheelView wheelView = createWheelView(new WheelView(RuntimeEnvironment.application));
+        final ManualFrameScheduler frameScheduler = startFling(wheelView);
+
+        wheelView.setLevelOfDetailVelocity(0);
+        final int fullCount = draw(wheelView);
+        wheelView.setLevelOfDetailVelocity(VELOCITY / 2);
+        final int reducedCount = draw(wheelView);
+        assertEquals(0f, wheelView.mLevelOfDetail, 0f);
+        assertTrue(reducedCount < fullCount);
+
+        // 停止后恢复完整绘制
+        while (frameScheduler.hasPendingFrame()) {
+            nextFrame(frameScheduler);
+        }
+        draw(wheelView);
+        assertEquals(1f, wheelView.mLevelOfDetail, 0f);
+    }
+
+    @Test
+    public void fastFling_doesNotCreateBitmaps() throws Exception {
+        final Wheel3DView wheelView = createWheelView(new Wheel3DView(RuntimeEnvironment.application));
+        wheelView.setBitmapCacheEnabled(true);
+        startFling(wheelView);
+
+        wheelView.setLevelOfDetailVelocity(VELOCITY / 2);
+        draw(wheelView);
+        assertEquals(0, mCanvas.drawBitmapCount);
+        assertTrue(mCanvas.drawTextCount > 0);
+    }
+
+    private <T extends WheelView> T createWheelView(T wheelView) {
+        String[] entries = new String[1000];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = String.valueOf(i);
+        }
+        wheelView.setEntries(entries);
+        wheelView.setIdleCacheEnabled(false);
+        wheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        wheelView.layout(0, 0, 480, 800);
+        return wheelView;
+    }
+
+    /**
+     * 开始快速滑行并推进一帧，使选项与分界线相交
+     */
+    private ManualFrameScheduler startFling(WheelView wheelView) {
+        final ManualFrameScheduler frameScheduler = new ManualFrameScheduler();
+        wheelView.mScroller.mFrameScheduler = frameScheduler;
+        wheelView.mScroller.startFling(VELOCITY);
+        nextFrame(frameScheduler);
+        assertTrue(wheelView.mScroller.getScrollOffset() % wheelView.mItemHeight != 0);
+        return frameScheduler;
+    }
+
+    private void nextFrame(ManualFrameScheduler frameScheduler) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_TIME, TimeUnit.MILLISECONDS);
+        frameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(FRAME_TIME));
+    }
+
+    /**
+     * @return 绘制的文字数量
+     */
+    private int draw(WheelView wheelView) {
+        mCanvas.reset();
+        wheelView.onDraw(mCanvas);
+        return mCanvas.drawTextCount;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 测试滚动动画的卡顿统计
+ */
+public class WheelMetricsTest {
+
+    @Test
+    public void steadyFrames_areNotJank() throws Exception {
+        final WheelMetrics metrics = new WheelMetrics();
+        // 59.94Hz的屏幕，并且每帧有±0.3毫秒的抖动
+        long frameTime = 1000000000L;
+        for (int i = 0; i < 600; i++) {
+            metrics.onScrollFrame(frameTime);
+            frameTime += 16683333L + (i % 2 == 0 ? 300000L : -300000L);
+        }
+        assertEquals(0, metrics.getJankFrameCount());
+        assertEquals(0, metrics.getDroppedFrameCount());
+    }
+
+    @Test
+    public void missedVsync_countsDroppedFrames() throws Exception {
+        final WheelMetrics metrics = new WheelMetrics();
+        final long budget = WheelMetrics.DEFAULT_FRAME_BUDGET_NANOS;
+        long frameTime = 1000000000L;
+        metrics.onScrollFrame(frameTime);
+        // 错过一次垂直同步
+        frameTime += budget * 2;
+        metrics.onScrollFrame(frameTime);
+        assertEquals(1, metrics.getJankFrameCount());
+        assertEquals(1, metrics.getDroppedFrameCount());
+
+        // 间隔约为4帧，丢失3帧
+        frameTime += budget * 4 + 1000000L;
+        metrics.onScrollFrame(frameTime);
+        assertEquals(2, metrics.getJankFrameCount());
+        assertEquals(4, metrics.getDroppedFrameCount());
+
+        // 动画结束后的第一帧不与上一次动画比较
+        metrics.onScrollFinished();
+        metrics.onScrollFrame(frameTime + budget * 10);
+        assertEquals(2, metrics.getJankFrameCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getDroppedFrameCount());
+    }
+}
@@ -0,0 +1,94 @@
+package com.cncoderx.wheelview;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试在一个控件中绘制多列滚轮
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelPickerViewTest {
+    private WheelPickerView mPickerView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() throws Exception {
+        mPickerView = new WheelPickerView(RuntimeEnvironment.application);
+        mPickerView.addColumn(2).setAdapter(new NumericWheelAdapter(1980, 2020));
+        mPickerView.addColumn().setAdapter(new NumericWheelAdapter(1, 12));
+        mPickerView.addColumn().setAdapter(new NumericWheelAdapter(1, 31));
+        for (int i = 0; i < mPickerView.getColumnCount(); i++) {
+            mPickerView.getColumn(i).mScroller.mFrameScheduler = new ManualFrameScheduler();
+        }
+        mPickerView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        mPickerView.layout(0, 0, 480, 800);
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void columns_shareStyleAndSplitWidth() throws Exception {
+        final WheelView year = mPickerView.getColumn(0);
+        final WheelView day = mPickerView.getColumn(2);
+        assertEquals(240, year.getWidth());
+        assertEquals(120, day.getWidth());
+        assertEquals(360, day.getLeft());
+        assertSame(year.mTextPaint, day.mTextPaint);
+
+        mPickerView.setTextSize(40);
+        assertEquals(40f, day.getTextSize(), 0f);
+        assertEquals(mPickerView.mTextBaseline, day.mTextBaseline);
+    }
+
+    @Test
+    public void idleColumns_replayRecordedFrames() throws Exception {
+        for (int i = 0; i < mPickerView.getColumnCount(); i++) {
+            mPickerView.getColumn(i).setIdleCacheEnabled(true);
+        }
+        draw();
+        draw();
+        draw();
+        assertEquals(3, mCanvas.drawPictureCount);
+        assertEquals(0, mCanvas.drawTextCount);
+
+        // 只有滚动的列重新绘制
+        mPickerView.getColumn(1).setCurrentIndex(5, true);
+        draw();
+        assertEquals(2, mCanvas.drawPictureCount);
+        assertTrue(mCanvas.drawTextCount > 0);
+    }
+
+    @Test
+    public void touch_scrollsColumnUnderFinger() throws Exception {
+        final long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 400, 400, 0);
+        mPickerView.onTouchEvent(event);
+        event.recycle();
+        event = MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, 100, 300, 0);
+        mPickerView.onTouchEvent(event);
+        event.recycle();
+
+        assertEquals(0, mPickerView.getColumn(0).mScroller.getScrollOffset());
+        assertEquals(0, mPickerView.getColumn(1).mScroller.getScrollOffset());
+        assertEquals(100, mPickerView.getColumn(2).mScroller.getScrollOffset());
+    }
+
+    private void draw() {
+        mCanvas.reset();
+        mPickerView.onDraw(mCanvas);
+    }
+}
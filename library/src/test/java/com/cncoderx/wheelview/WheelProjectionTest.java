@@ -0,0 +1,51 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 比较投影表与解析计算的结果
+ */
+public class WheelProjectionTest {
+    private static final float DELTA = 1e-3f;
+
+    @Test
+    public void table_matchesAnalyticProjection() throws Exception {
+        WheelProjection projection = new WheelProjection();
+        for (int r = 1; r <= 600; r += 37) {
+            projection.setRadius(r);
+            for (int range = -r * 2; range <= r * 2; range++) {
+                boolean visible = Math.abs(range) <= r * Math.PI / 2;
+                assertEquals(visible, projection.isVisible(range));
+                if (!visible) continue;
+
+                double angle = (double) range / r;
+                assertEquals((float) Math.toDegrees(-angle), projection.getRotate(range), DELTA);
+                assertEquals((float) (Math.sin(angle) * r), projection.getTranslateY(range), DELTA);
+                assertEquals((float) ((1 - Math.cos(angle)) * r), projection.getTranslateZ(range), DELTA);
+                assertEquals((int) (Math.cos(angle) * 255), projection.getAlpha(range));
+            }
+        }
+    }
+
+    @Test
+    public void table_isRebuiltWhenRadiusChanges() throws Exception {
+        WheelProjection projection = new WheelProjection();
+        projection.setRadius(400);
+        projection.setRadius(100);
+        assertEquals(100, projection.getRadius());
+        assertFalse(projection.isVisible(158));
+        assertTrue(projection.isVisible(157));
+        assertEquals((float) (Math.sin(1.0) * 100), projection.getTranslateY(100), DELTA);
+    }
+
+    @Test
+    public void table_isEmptyWithoutRadius() throws Exception {
+        WheelProjection projection = new WheelProjection();
+        projection.setRadius(0);
+        assertFalse(projection.isVisible(0));
+    }
+}
@@ -0,0 +1,257 @@
+package com.cncoderx.wheelview;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试由帧回调驱动的滚动动画
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelScrollerTest {
+    private static final int FRAME_TIME = 16;
+
+    private TestWheelView mWheelView;
+    private ManualFrameScheduler mFrameScheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        String[] entries = new String[100];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = String.valueOf(i);
+        }
+        mWheelView = new TestWheelView(RuntimeEnvironment.application);
+        mWheelView.setEntries(entries);
+        mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.mScroller.mFrameScheduler = mFrameScheduler;
+        new FrameLayout(RuntimeEnvironment.application).addView(mWheelView);
+    }
+
+    @Test
+    public void animation_stopsWhenIdle() throws Exception {
+        mWheelView.setCurrentIndex(10, true);
+        assertTrue(mFrameScheduler.hasPendingFrame());
+
+        runUntilIdle();
+        assertFalse(mFrameScheduler.hasPendingFrame());
+        assertEquals(10, mWheelView.getCurrentIndex());
+        assertEquals(10 * mWheelView.mItemHeight, mWheelView.mScroller.getScrollOffset());
+    }
+
+    @Test
+    public void frame_invalidatesOnlyWhenOffsetChanged() throws Exception {
+        mWheelView.setCurrentIndex(10, true);
+        mWheelView.invalidateCount = 0;
+
+        // 两帧之间没有经过时间，偏移量不变
+        nextFrame(0);
+        assertEquals(0, mWheelView.invalidateCount);
+        assertTrue(mFrameScheduler.hasPendingFrame());
+
+        nextFrame(FRAME_TIME);
+        assertEquals(1, mWheelView.invalidateCount);
+    }
+
+    @Test
+    public void animation_followsFrameTime() throws Exception {
+        mWheelView.setCurrentIndex(10, true);
+
+        // 只推进帧时间，系统时钟保持不变
+        int frames = 0;
+        while (mFrameScheduler.hasPendingFrame() && frames < 100) {
+            mFrameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(FRAME_TIME));
+            frames++;
+        }
+        assertFalse(mFrameScheduler.hasPendingFrame());
+        assertEquals(10 * mWheelView.mItemHeight, mWheelView.mScroller.getScrollOffset());
+        assertTrue(frames <= WheelScroller.JUSTIFY_DURATION / FRAME_TIME + 2);
+    }
+
+    @Test
+    public void fling_landsOnItemWithoutJustify() throws Exception {
+        mWheelView.mScroller.startFling(3000);
+        final int target = mWheelView.mScroller.mFling.getFinalOffset();
+        assertEquals(0, target % mWheelView.mItemHeight);
+
+        int scrollOffset = 0;
+        while (mFrameScheduler.hasPendingFrame()) {
+            nextFrame(FRAME_TIME);
+            // 滑行过程中不会越过目标再返回
+            assertTrue(mWheelView.mScroller.getScrollOffset() >= scrollOffset);
+            assertTrue(mWheelView.mScroller.getScrollOffset() <= target);
+            scrollOffset = mWheelView.mScroller.getScrollOffset();
+        }
+        assertEquals(target, scrollOffset);
+    }
+
+    @Test
+    public void fling_followsFrameTime() throws Exception {
+        mWheelView.mScroller.startFling(3000);
+        final int target = mWheelView.mScroller.mFling.getFinalOffset();
+        final int duration = mWheelView.mScroller.mFling.getDuration();
+
+        // 只推进帧时间，系统时钟保持不变
+        int frames = 0;
+        while (mFrameScheduler.hasPendingFrame() && frames < 1000) {
+            mFrameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(FRAME_TIME));
+            frames++;
+        }
+        assertEquals(target, mWheelView.mScroller.getScrollOffset());
+        assertTrue(frames <= duration / FRAME_TIME + 2);
+    }
+
+    @Test
+    public void slowDrag_keepsSubPixelMovement() throws Exception {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 0, 400, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+        for (int i = 1; i <= 10; i++) {
+            event = MotionEvent.obtain(now, now + i, MotionEvent.ACTION_MOVE, 0, 400 - .3f * i, 0);
+            mWheelView.onTouchEvent(event);
+            event.recycle();
+        }
+
+        // 每次移动不足一个像素，累计的距离不会丢失
+        final float offset = mWheelView.mScroller.getScrollOffset() + mWheelView.mScroller.getScrollFraction();
+        assertEquals(3f, offset, .001f);
+
+        // 在边界上向外拖动时不保留偏移量
+        event = MotionEvent.obtain(now, now + 20, MotionEvent.ACTION_MOVE, 0, 410.4f, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+        assertEquals(0, mWheelView.mScroller.getScrollOffset());
+        assertEquals(0f, mWheelView.mScroller.getScrollFraction(), 0f);
+    }
+
+    @Test
+    public void touchDown_removesPendingFrame() throws Exception {
+        mWheelView.setCurrentIndex(10, true);
+        nextFrame(FRAME_TIME);
+        final int scrollOffset = mWheelView.mScroller.getScrollOffset();
+
+        long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 0, 0, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+
+        assertFalse(mFrameScheduler.hasPendingFrame());
+        assertEquals(scrollOffset, mWheelView.mScroller.getScrollOffset());
+    }
+
+    @Test
+    public void detach_snapsToNearestItem() throws Exception {
+        mWheelView.setCurrentIndex(10, true);
+        nextFrame(FRAME_TIME);
+        nextFrame(FRAME_TIME);
+
+        mWheelView.onDetachedFromWindow();
+
+        assertFalse(mFrameScheduler.hasPendingFrame());
+        assertEquals(0, mWheelView.mScroller.getScrollOffset() % mWheelView.mItemHeight);
+    }
+
+    @Test
+    public void animation_settlesOnce() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        mWheelView.setOnWheelScrollStateListener(listener);
+
+        mWheelView.setCurrentIndex(10, true);
+        assertEquals(OnWheelScrollStateListener.SCROLL_STATE_SETTLING, mWheelView.getScrollState());
+        runUntilIdle();
+
+        assertEquals(OnWheelScrollStateListener.SCROLL_STATE_IDLE, mWheelView.getScrollState());
+        assertEquals("2,0,", listener.states.toString());
+        assertEquals(1, listener.settledCount);
+        assertEquals(10, listener.settledIndex);
+    }
+
+    @Test
+    public void touch_changesScrollState() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        mWheelView.setOnWheelScrollStateListener(listener);
+
+        long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 0, 100, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+        assertEquals(OnWheelScrollStateListener.SCROLL_STATE_DRAGGING, mWheelView.getScrollState());
+
+        event = MotionEvent.obtain(now, now, MotionEvent.ACTION_CANCEL, 0, 100, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+        assertEquals(OnWheelScrollStateListener.SCROLL_STATE_IDLE, mWheelView.getScrollState());
+        assertEquals("1,0,", listener.states.toString());
+        assertEquals(1, listener.settledCount);
+    }
+
+    @Test
+    public void coalesced_firesOncePerFrame() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        mWheelView.setOnWheelChangedListener(listener);
+        mWheelView.setOnWheelScrollStateListener(listener);
+        mWheelView.setChangedEventCoalesced(true);
+
+        mWheelView.setCurrentIndex(90, true);
+        int frames = runUntilIdle();
+
+        assertTrue(listener.changedCount <= frames);
+        assertTrue(listener.changedCount < 90);
+        assertEquals(90, listener.lastIndex);
+        assertEquals(90, listener.settledIndex);
+    }
+
+    private int runUntilIdle() {
+        int frames = 0;
+        while (mFrameScheduler.hasPendingFrame() && frames < 1000) {
+            nextFrame(FRAME_TIME);
+            frames++;
+        }
+        return frames;
+    }
+
+    private void nextFrame(int frameTime) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(frameTime, TimeUnit.MILLISECONDS);
+        mFrameScheduler.doFrame(TimeUnit.MILLISECONDS.toNanos(frameTime));
+    }
+
+    static class RecordingListener implements OnWheelChangedListener, OnWheelScrollStateListener {
+        final StringBuilder states = new StringBuilder();
+        int changedCount;
+        int lastIndex = -1;
+        int settledCount;
+        int settledIndex = -1;
+
+        @Override
+        public void onChanged(WheelView view, int oldIndex, int newIndex) {
+            changedCount++;
+            lastIndex = newIndex;
+        }
+
+        @Override
+        public void onScrollStateChanged(WheelView view, int scrollState) {
+            states.append(scrollState).append(',');
+        }
+
+        @Override
+        public void onSelectionSettled(WheelView view, int index) {
+            settledCount++;
+            settledIndex = index;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cncoderx.wheelview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试滚轮按照前缀跳转
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelSearchIndexTest {
+    private WheelView mWheelView;
+    private QueuedExecutor mExecutor;
+
+    @Before
+    public void setUp() throws Exception {
+        mWheelView = new WheelView(RuntimeEnvironment.application);
+        mWheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.setEntries("Beijing", "Shanghai", "Guangzhou", "Shenzhen", "Chengdu");
+        mExecutor = new QueuedExecutor();
+        mWheelView.setSearchIndex(new WheelSearchIndex(mExecutor));
+    }
+
+    @Test
+    public void jumpTo_afterIndexBuilt() throws Exception {
+        assertFalse(mWheelView.getSearchIndex().isReady());
+        assertFalse(mWheelView.jumpTo("she", false));
+
+        mExecutor.runAll();
+        assertTrue(mWheelView.jumpTo("she", false));
+        assertEquals(3, mWheelView.getCurrentIndex());
+        assertFalse(mWheelView.jumpTo("xi", false));
+        assertEquals(3, mWheelView.getCurrentIndex());
+    }
+
+    @Test
+    public void entriesChanged_updatesIndex() throws Exception {
+        mExecutor.runAll();
+        mWheelView.setEntries("Beijing", "Shanghai", "Guangzhou", "Shenzhen", "Chengdu", "Xi'an");
+
+        // 少量选项变化时直接更新索引，不需要重新建立
+        assertTrue(mWheelView.getSearchIndex().isReady());
+        assertEquals(5, mWheelView.findIndex("xi"));
+    }
+
+    @Test
+    public void staleBuild_isDiscarded() throws Exception {
+        mWheelView.setAdapter(new ListWheelAdapter("Hangzhou", "Nanjing"));
+        mExecutor.runAll();
+        assertEquals(-1, mWheelView.findIndex("bei"));
+        assertEquals(1, mWheelView.findIndex("nan"));
+    }
+
+    @Test
+    public void pagedAdapter_indexesLoadedItemsOnly() throws Exception {
+        final FakePageSource source = new FakePageSource(0);
+        final QueuedExecutor pageExecutor = new QueuedExecutor();
+        final PagedWheelAdapter adapter = new PagedWheelAdapter(source, 100000, 50, 3, pageExecutor);
+        final QueuedExecutor indexExecutor = new QueuedExecutor();
+        final WheelSearchIndex searchIndex = new WheelSearchIndex(indexExecutor);
+        searchIndex.setAdapter(adapter);
+
+        // 建立索引时不会读取页
+        assertEquals(0, pageExecutor.size());
+        assertEquals(1, indexExecutor.size());
+
+        // 建立索引期间读取的页只会导致完成后再建立一次
+        adapter.getItem(120);
+        pageExecutor.runAll();
+        assertEquals(1, indexExecutor.size());
+        indexExecutor.runAll();
+        assertTrue(searchIndex.isReady());
+        assertEquals(120, searchIndex.findIndex("item 120"));
+        assertEquals(-1, searchIndex.findIndex(adapter.getPlaceholder()));
+
+        // 之后读取的页直接更新索引
+        adapter.getItem(5000);
+        pageExecutor.runAll();
+        assertEquals(0, indexExecutor.size());
+        assertEquals(5000, searchIndex.findIndex("item 5000"));
+        assertEquals(0, pageExecutor.size());
+        assertEquals(2, source.getLoadCount());
+    }
+
+    static class QueuedExecutor implements Executor {
+        private final List<Runnable> mTasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mTasks.add(command);
+        }
+
+        int size() {
+            return mTasks.size();
+        }
+
+        void runAll() {
+            while (!mTasks.isEmpty()) {
+                mTasks.remove(0).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.cncoderx.wheelview;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试以渐变切换颜色、每个选项只绘制一次的模式
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelSinglePassTest {
+    private WheelView mWheelView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() throws Exception {
+        mWheelView = new WheelView(RuntimeEnvironment.application);
+        mWheelView.setAdapter(new NumericWheelAdapter(0, 99));
+        mWheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.setIdleCacheEnabled(false);
+        mWheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        mWheelView.layout(0, 0, 480, 800);
+        new FrameLayout(RuntimeEnvironment.application).addView(mWheelView);
+        mWheelView.setCurrentIndex(10, false);
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void singlePass_drawsEachItemOnce() throws Exception {
+        scrollBy(mWheelView.mItemHeight / 3);
+        mWheelView.setSinglePassEnabled(true);
+        mCanvas.reset();
+        mWheelView.onDraw(mCanvas);
+        final int visibleCount = mWheelView.mLayoutEngine.getVisibleCount();
+        assertNotNull(mWheelView.mSplitTextPaint.getShader());
+        assertEquals(visibleCount, mCanvas.drawTextCount);
+        assertEquals(1, mCanvas.saveCount);
+        assertEquals(1, mCanvas.clipCount);
+
+        mWheelView.setSinglePassEnabled(false);
+        mCanvas.reset();
+        mWheelView.onDraw(mCanvas);
+        assertTrue(mCanvas.drawTextCount > visibleCount);
+        assertTrue(mCanvas.saveCount > visibleCount);
+    }
+
+    @Test
+    public void colorChange_updatesShader() throws Exception {
+        mWheelView.setSinglePassEnabled(true);
+        mWheelView.onDraw(mCanvas);
+        final Object shader = mWheelView.mSplitTextPaint.getShader();
+
+        mWheelView.setSelectedTextColor(0xffff0000);
+        mWheelView.onDraw(mCanvas);
+        assertTrue(shader != mWheelView.mSplitTextPaint.getShader());
+    }
+
+    /**
+     * 拖动滚轮，停在两个选项之间，使选项与分界线相交
+     */
+    private void scrollBy(int distance) {
+        final long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 0, 400, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+        event = MotionEvent.obtain(now, now, MotionEvent.ACTION_MOVE, 0, 400 - distance, 0);
+        mWheelView.onTouchEvent(event);
+        event.recycle();
+    }
+}
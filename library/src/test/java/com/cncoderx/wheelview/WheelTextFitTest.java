@@ -0,0 +1,177 @@
+package com.cncoderx.wheelview;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 测试在后台线程中测量并调整超出宽度的选项文字
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class WheelTextFitTest {
+    private static final String SHORT_TEXT = "short";
+
+    private WheelView mWheelView;
+    private WheelSearchIndexTest.QueuedExecutor mExecutor;
+    private CountingCanvas mCanvas;
+    private String mLongText;
+    private String mVeryLongText;
+
+    @Before
+    public void setUp() throws Exception {
+        mWheelView = new WheelView(RuntimeEnvironment.application);
+        mWheelView.mScroller.mFrameScheduler = new ManualFrameScheduler();
+        mWheelView.measure(
+                View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        mWheelView.layout(0, 0, 480, 800);
+
+        // 分别构造略微超出宽度和超出两倍宽度的文字
+        final float availableWidth = mWheelView.mClipRectMiddle.width();
+        mLongText = repeat(availableWidth * 1.5f);
+        mVeryLongText = repeat(availableWidth * 3);
+        mWheelView.setEntries(SHORT_TEXT, mLongText, mVeryLongText);
+        mExecutor = new WheelSearchIndexTest.QueuedExecutor();
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void shrink_scalesLongText() throws Exception {
+        prepare(WheelView.TEXT_FIT_SHRINK);
+
+        assertEquals(SHORT_TEXT, mWheelView.getItemText(0).toString());
+        assertEquals(1f, mWheelView.mItemTextScale, 0f);
+
+        assertEquals(mLongText, mWheelView.getItemText(1).toString());
+        assertTrue(mWheelView.mItemTextScale < 1f);
+        assertTrue(mWheelView.mItemTextScale > TextFitter.MIN_SCALE);
+
+        // 缩小到最小比例后仍然超出宽度时省略
+        mWheelView.getItemText(2);
+        assertEquals(TextFitter.MIN_SCALE, mWheelView.mItemTextScale, 0f);
+    }
+
+    @Test
+    public void ellipsize_keepsTextSize() throws Exception {
+        prepare(WheelView.TEXT_FIT_ELLIPSIZE);
+
+        assertEquals(SHORT_TEXT, mWheelView.getItemText(0).toString());
+        assertTrue(mWheelView.mTextFitter.find(1) >= 0);
+        mWheelView.getItemText(1);
+        assertEquals(1f, mWheelView.mItemTextScale, 0f);
+    }
+
+    @Test
+    public void textSizeChange_discardsResults() throws Exception {
+        mWheelView.setTextFitMode(WheelView.TEXT_FIT_SHRINK);
+        mWheelView.mTextFitter.mExecutor = mExecutor;
+        mWheelView.onDraw(mCanvas);
+        mWheelView.setTextSize((int) mWheelView.getTextSize() * 2);
+
+        // 样式改变前提交的测量结果不再使用
+        mExecutor.runAll();
+        assertTrue(mWheelView.mTextFitter.find(1) < 0);
+        mWheelView.getItemText(1);
+        assertEquals(1f, mWheelView.mItemTextScale, 0f);
+
+        prepare(WheelView.TEXT_FIT_SHRINK);
+        mWheelView.getItemText(1);
+        assertTrue(mWheelView.mItemTextScale < 1f);
+    }
+
+    @Test
+    public void rangeChange_keepsOtherResults() throws Exception {
+        prepare(WheelView.TEXT_FIT_SHRINK);
+        final ListWheelAdapter adapter = (ListWheelAdapter) mWheelView.getAdapter();
+        final TextFitter fitter = mWheelView.mTextFitter;
+
+        // 只丢弃变化的选项
+        adapter.replace(2, 1, Collections.singletonList(SHORT_TEXT));
+        assertTrue(fitter.find(0) >= 0);
+        assertTrue(fitter.find(1) >= 0);
+        assertTrue(fitter.find(2) < 0);
+
+        // 追加选项不影响已有的选项
+        adapter.append(mLongText);
+        assertTrue(fitter.find(1) >= 0);
+
+        // 删除选项后，后面的选项位置发生变化
+        adapter.remove(0, 1);
+        assertTrue(fitter.find(0) < 0);
+        assertTrue(fitter.find(1) < 0);
+    }
+
+    @Test
+    public void draw_submitsAfterFrame() throws Exception {
+        mWheelView.setTextFitMode(WheelView.TEXT_FIT_SHRINK);
+        mWheelView.mTextFitter.mExecutor = mExecutor;
+
+        // 绘制时只收集请求，绘制结束后才提交
+        ShadowLooper.pauseMainLooper();
+        mWheelView.onDraw(mCanvas);
+        assertEquals(0, mExecutor.size());
+        ShadowLooper.unPauseMainLooper();
+        assertEquals(1, mExecutor.size());
+
+        // 当前选项不变并且没有新的请求时不再提交
+        mExecutor.runAll();
+        mWheelView.onDraw(mCanvas);
+        assertEquals(0, mExecutor.size());
+    }
+
+    @Test
+    public void flush_reusesBuffersAfterWarmUp() throws Exception {
+        final String[] entries = new String[200];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = "item " + i;
+        }
+        mWheelView.setEntries(entries);
+        mWheelView.setTextFitMode(WheelView.TEXT_FIT_SHRINK);
+        final TextFitter fitter = mWheelView.mTextFitter;
+        fitter.mExecutor = mExecutor;
+        fitter.flush(20, 10);
+        mExecutor.runAll();
+        fitter.flush(60, 10);
+        mExecutor.runAll();
+
+        final AllocationCounter counter = new AllocationCounter();
+        counter.begin();
+        fitter.flush(100, 10);
+        counter.end();
+        assertEquals(0, counter.getAllocatedBytes());
+
+        mExecutor.runAll();
+        assertTrue(fitter.find(100) >= 0);
+        assertEquals("item 100", mWheelView.getItemText(100).toString());
+    }
+
+    /**
+     * 绘制一帧收集需要测量的选项，然后执行后台的测量任务
+     */
+    private void prepare(int mode) {
+        mWheelView.setTextFitMode(mode);
+        mWheelView.mTextFitter.mExecutor = mExecutor;
+        mWheelView.onDraw(mCanvas);
+        mExecutor.runAll();
+    }
+
+    private String repeat(float width) {
+        final StringBuilder builder = new StringBuilder();
+        while (mWheelView.mTextPaint.measureText(builder.toString()) <= width) {
+            builder.append("wheel ");
+        }
+        return builder.toString();
+    }
+}